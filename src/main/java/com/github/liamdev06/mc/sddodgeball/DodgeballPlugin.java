@@ -1,24 +1,32 @@
 package com.github.liamdev06.mc.sddodgeball;
 
+import com.github.liamdev06.mc.sddodgeball.game.ArenaDefinition;
 import com.github.liamdev06.mc.sddodgeball.game.BlockLocationPair;
 import com.github.liamdev06.mc.sddodgeball.game.Game;
+import com.github.liamdev06.mc.sddodgeball.game.PlayerGameIndex;
 import com.github.liamdev06.mc.sddodgeball.game.enums.GameState;
 import com.github.liamdev06.mc.sddodgeball.game.enums.GameTeam;
+import com.github.liamdev06.mc.sddodgeball.managers.ArenaBootstrapper;
+import com.github.liamdev06.mc.sddodgeball.managers.GameDataWatcher;
 import com.github.liamdev06.mc.sddodgeball.managers.world.WorldManager;
-import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.settings.Settings;
 import com.github.liamdev06.mc.sddodgeball.tickhandler.RunnableManager;
+import com.github.liamdev06.mc.sddodgeball.storage.user.storage.BinaryUserStorage;
 import com.github.liamdev06.mc.sddodgeball.storage.user.storage.LocalUserStorage;
 import com.github.liamdev06.mc.sddodgeball.storage.user.storage.IUserStorage;
 import com.github.liamdev06.mc.sddodgeball.storage.user.storage.MongoCredentials;
 import com.github.liamdev06.mc.sddodgeball.storage.user.storage.MongoUserStorage;
+import com.github.liamdev06.mc.sddodgeball.storage.user.storage.ShardedUserStorage;
 import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.storage.StorageExecutor;
+import com.github.liamdev06.mc.sddodgeball.managers.LeaderboardManager;
 import com.github.liamdev06.mc.sddodgeball.managers.ScoreboardManager;
 import com.github.liamdev06.mc.sddodgeball.utility.autoregistry.AutoRegistry;
 import com.github.liamdev06.mc.sddodgeball.utility.location.InvalidLocationParseException;
 import com.github.liamdev06.mc.sddodgeball.utility.location.LocationHelper;
-import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.event.Listener;
@@ -29,8 +37,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -41,15 +53,21 @@ public final class DodgeballPlugin extends JavaPlugin {
 
     private static DodgeballPlugin INSTANCE;
     private Map<String, Game> games;
+    private PlayerGameIndex playerGameIndex;
     private FileConfiguration messagesConfig;
     private GameFileStorage pluginConfig;
     private GameFileStorage playerDataFileStorage;
     private GameFileStorage lobbyConfig;
     private GameFileStorage gameStorage;
+    private volatile Settings settings;
     private IUserStorage userStorage;
+    private StorageExecutor storageExecutor;
     private RunnableManager runnableManager;
     private ScoreboardManager scoreboardManager;
+    private LeaderboardManager leaderboardManager;
+    private PlaceholderAPIExtension placeholderExtension;
     private WorldManager worldManager;
+    private GameDataWatcher gameDataWatcher;
 
     @Override
     public void onEnable() {
@@ -63,7 +81,8 @@ public final class DodgeballPlugin extends JavaPlugin {
         // Checking if PlaceholderAPI is installed
         log.info("Hooking into PlaceholderAPI...");
         if (pluginManager.isPluginEnabled("PlaceholderAPI")) {
-            new PlaceholderAPIExtension(this).register();
+            this.placeholderExtension = new PlaceholderAPIExtension(this);
+            this.placeholderExtension.register();
             log.info("Hooked extension into PlaceholderAPI!");
         } else {
             this.abort(pluginManager,
@@ -75,8 +94,10 @@ public final class DodgeballPlugin extends JavaPlugin {
         if (this.setupConfigurations()) {
             log.info("Detected fresh plugin start-up! All files were created from default configurations.");
         }
+        this.loadSettings();
 
         // Enable correct user storage
+        this.storageExecutor = StorageExecutor.fromConfig(this.pluginConfig);
         String storageType = this.pluginConfig.getString("storage");
         if (storageType.equals("")) {
             storageType = "local";
@@ -94,41 +115,44 @@ public final class DodgeballPlugin extends JavaPlugin {
 
             this.userStorage = new MongoUserStorage(this, credentials);
             log.info("Mongo storage was selected for user storage.");
+        } else if (storageType.equals("sharded")) {
+            this.userStorage = new ShardedUserStorage(this);
+            log.info("Sharded local storage was selected for user storage.");
+        } else if (storageType.equals("binary")) {
+            this.userStorage = new BinaryUserStorage(this);
+            log.info("Binary local storage was selected for user storage.");
         } else {
             this.userStorage = new LocalUserStorage(this);
             log.info("Local storage was selected for user storage.");
         }
 
         // Initialization
+        this.leaderboardManager = new LeaderboardManager(this);
+        this.leaderboardManager.seed();
         this.scoreboardManager = new ScoreboardManager(this);
         this.runnableManager = new RunnableManager(this);
         this.runnableManager.registerRunnable();
         this.worldManager = new WorldManager(this);
 
-        // Load in registered games
+        // Load in registered games in the background, every game comes online as soon as its world is created
         this.games = new HashMap<>();
-        ConfigurationSection gamesSection = this.gameStorage.getSection("registeredGames");
-        if (gamesSection == null) {
-            log.warning("The game_data.yml file is missing the 'registeredGames' section! Games could not be loaded in.");
-        } else {
-            for (String gameId : this.gameStorage.getSection("registeredGames").getKeys(false)) {
-                Game game = this.loadInGame(gameId, gamesSection);
-                if (game == null) {
-                    continue;
-                }
-
-                this.games.put(gameId, game);
+        this.playerGameIndex = new PlayerGameIndex();
+        final long gamesTime = System.currentTimeMillis();
+        new ArenaBootstrapper(this).start().thenAccept(gamesSize -> {
+            if (gamesSize == 0) {
+                log.info("No games registered games exist within the game_data.yml. View the plugin documentation on how to set up a new game.");
+            } else if (gamesSize == 1) {
+                log.info("1 game was successfully registered in " + (System.currentTimeMillis() - gamesTime) + "ms.");
+            } else {
+                log.info(gamesSize + " games were registered in " + (System.currentTimeMillis() - gamesTime) + "ms.");
             }
-        }
 
-        int gamesSize = this.games.size();
-        if (gamesSize == 0) {
-            log.info("No games registered games exist within the game_data.yml. View the plugin documentation on how to set up a new game.");
-        } else if (gamesSize == 1) {
-            log.info("1 game was successfully registered.");
-        } else {
-            log.info(gamesSize + " games were registered.");
-        }
+            // Reload games when game_data.yml is edited while the server is running
+            if (this.isEnabled() && (!this.pluginConfig.contains("watch-game-data") || this.pluginConfig.getBoolean("watch-game-data"))) {
+                this.gameDataWatcher = new GameDataWatcher(this);
+                this.gameDataWatcher.start();
+            }
+        });
 
         // Register commands and listeners
         log.info("Registering commands and listeners...");
@@ -140,6 +164,12 @@ public final class DodgeballPlugin extends JavaPlugin {
         this.runnableManager.start("scoreboard", false);
         this.runnableManager.start("timer", false);
 
+        // The lobby world might be loaded by another plugin after this one, so try the lobby spawn again once the server is running
+        Settings settings = this.settings;
+        if (settings.lobby().spawn() == null && !settings.lobby().spawnLocation().isEmpty()) {
+            this.getServer().getScheduler().runTask(this, this::loadSettings);
+        }
+
         // Done
         log.info("Plugin has successfully loaded in " + (System.currentTimeMillis() - time) + "ms!");
     }
@@ -149,14 +179,19 @@ public final class DodgeballPlugin extends JavaPlugin {
         long time = System.currentTimeMillis();
         Logger log = this.getLogger();
 
+        // Stop reloading games before they are written back to game_data.yml
+        if (this.gameDataWatcher != null) {
+            this.gameDataWatcher.stop();
+        }
+
         // Save all users
         if (this.userStorage == null) {
             log.severe("There is no instance of a user manager! Users could not be saved to the storage!");
         } else {
-            for (User user : this.userStorage.getUsers().values()) {
-                this.userStorage.saveUserToStorage(user.getUuid()).join(); // Since the server is shutting down this action can be blocking
-            }
+            List<UUID> uuids = new ArrayList<>(this.userStorage.getUsers().keySet());
+            this.userStorage.saveUsersToStorage(uuids).join(); // Since the server is shutting down this action can be blocking
 
+            this.storageExecutor.shutdown(log);
             this.userStorage.handleShutdown();
             log.info("All users have been saved to storage.");
         }
@@ -209,21 +244,37 @@ public final class DodgeballPlugin extends JavaPlugin {
      * Loads in a game from a configuration section.
      *
      * @param gameId The id of the game to load in.
-     * @param gamesSection The bukkit {@link FileConfiguration} to load it in from.
-     * @return The new created instance of a game.
+     * @param gamesSection The 'registeredGames' section to load it in from.
+     * @return The new created instance of a game, or null if the game is invalid.
      */
-    private @Nullable Game loadInGame(@NonNull String gameId, @NonNull ConfigurationSection gamesSection) {
-        final String path = gameId + ".";
+    public @Nullable Game loadInGame(@NonNull String gameId, @NonNull ConfigurationSection gamesSection) {
+        ArenaDefinition definition;
+        try {
+            definition = ArenaDefinition.parse(gameId, gamesSection);
+        } catch (IllegalArgumentException exception) {
+            this.getLogger().severe(exception.getMessage());
+            return null;
+        }
+
+        return this.createGame(definition);
+    }
+
+    /**
+     * Creates the world and game of a parsed arena. Must be called on the main thread.
+     *
+     * @param definition The parsed arena.
+     * @return The new created instance of a game, or null if the locations of the game could not be created.
+     */
+    public @Nullable Game createGame(@NonNull ArenaDefinition definition) {
+        final String gameId = definition.gameId();
         Logger logger = this.getLogger();
-        boolean enabled = gamesSection.getBoolean(path + "enabled");
-        String worldName = gamesSection.getString(path + "worldName", "");
 
         // Create and load in the world
-        this.worldManager.setupModifiedWorld(worldName);
+        this.worldManager.setupModifiedWorld(definition.worldName());
 
         Location waitingLobbySpawn;
         try {
-            waitingLobbySpawn = LocationHelper.parseLocation(gamesSection.getString(path + "waitingLobbySpawn", ""));
+            waitingLobbySpawn = LocationHelper.parseLocation(definition.waitingLobbySpawn());
         } catch (InvalidLocationParseException exception) {
             exception.printStackTrace();
             logger.severe("The waiting lobby spawn location is broken in the game " + gameId);
@@ -231,35 +282,27 @@ public final class DodgeballPlugin extends JavaPlugin {
         }
 
         // Create game and apply settings
-        Game game = new Game(this, gameId, worldName);
-        game.setEnabled(enabled);
+        Game game = new Game(this, gameId, definition.worldName());
+        game.setEnabled(definition.enabled());
         game.setGameState(GameState.PRE_WAITING);
         game.setWaitingLobbySpawn(waitingLobbySpawn);
 
         // Load in teams
-        for (String teamId : this.gameStorage.getSection("registeredGames." + gameId + ".team").getKeys(false)) {
-            final String teamPath = path + "team." + teamId + ".";
-
-            // Get team values
-            String teamDisplayName = gamesSection.getString(teamPath + "displayName", "DISPLAYNAME_ERROR");
-            String teamPrefix = gamesSection.getString(teamPath + "prefix", "PREFIX_ERROR");
-            ChatColor teamChatColor = ChatColor.valueOf(gamesSection.getString(teamPath + "chatColor", "RED").toUpperCase());
-            boolean playable = gamesSection.getBoolean(teamPath + "playable");
-
+        for (ArenaDefinition.TeamDefinition teamDefinition : definition.teams()) {
             // Block location pair
             Location positionOne;
             Location positionTwo;
 
             try {
-                positionOne = LocationHelper.parseLocation(gamesSection.getString(teamPath + "locationPair.one", ""));
-                positionTwo = LocationHelper.parseLocation(gamesSection.getString(teamPath + "locationPair.two", ""));
+                positionOne = LocationHelper.parseLocation(teamDefinition.positionOne());
+                positionTwo = LocationHelper.parseLocation(teamDefinition.positionTwo());
             } catch (InvalidLocationParseException exception) {
                 logger.severe("The playable locations spawn locations are broken in the game " + gameId);
                 return null;
             }
 
             // Create the team
-            GameTeam team = new GameTeam(teamId, teamDisplayName, teamChatColor, teamPrefix, playable);
+            GameTeam team = new GameTeam(teamDefinition.id(), teamDefinition.displayName(), teamDefinition.chatColor(), teamDefinition.prefix(), teamDefinition.playable());
             BlockLocationPair locationPair = team.getPlayableTeamArea();
             locationPair.setPositionOne(positionOne);
             locationPair.setPositionTwo(positionTwo);
@@ -347,6 +390,72 @@ public final class DodgeballPlugin extends JavaPlugin {
         return freshSetup;
     }
 
+    /**
+     * Read the settings from the currently loaded configurations, and swap them in for the old settings.
+     */
+    public void loadSettings() {
+        this.settings = Settings.load(this.getLogger(), this.pluginConfig, this.lobbyConfig, this.messagesConfig);
+    }
+
+    /**
+     * Read config.yml, lobby.yml and messages.yml again off the main thread. If every file is valid, the new
+     * configurations and settings are swapped in on the main thread. Running games are kept and use the new
+     * settings from then on.
+     *
+     * @return A future completed on the main thread with the problems found in the files, empty if the new settings were swapped in.
+     */
+    public CompletableFuture<List<String>> reloadSettings() {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+
+        this.getServer().getScheduler().runTaskAsynchronously(this, () -> {
+            // Parse and validate the files
+            List<String> problems = new ArrayList<>();
+            GameFileStorage config = this.parseConfiguration("config.yml", problems);
+            GameFileStorage lobby = this.parseConfiguration("lobby.yml", problems);
+            GameFileStorage messages = this.parseConfiguration("messages.yml", problems);
+            if (problems.isEmpty()) {
+                problems.addAll(Settings.validate(config, lobby));
+            }
+
+            // Swap in the new settings on the main thread, where they are read
+            this.getServer().getScheduler().runTask(this, () -> {
+                if (problems.isEmpty()) {
+                    this.pluginConfig = config;
+                    this.lobbyConfig = lobby;
+                    this.messagesConfig = messages.configuration();
+                    this.loadSettings();
+                    this.scoreboardManager.updateTitles();
+                    this.invalidateAllPlaceholders();
+                }
+
+                future.complete(problems);
+            });
+        });
+
+        return future;
+    }
+
+    /**
+     * Parse a configuration file in the plugin data folder.
+     *
+     * @param fileName The name of the file, make sure to include the file extension.
+     * @param problems The list to add a problem to if the file could not be parsed.
+     * @return The parsed configuration, or null if it could not be parsed.
+     */
+    private @Nullable GameFileStorage parseConfiguration(@NonNull String fileName, @NonNull List<String> problems) {
+        File file = new File(this.getDataFolder(), fileName);
+        YamlConfiguration configuration = new YamlConfiguration();
+
+        try {
+            configuration.load(file);
+        } catch (IOException | InvalidConfigurationException exception) {
+            problems.add(fileName + ": " + exception.getMessage());
+            return null;
+        }
+
+        return new GameFileStorage(file, configuration);
+    }
+
     /**
      * Create a new file in the Dodgeball plugin directory.
      *
@@ -406,10 +515,38 @@ public final class DodgeballPlugin extends JavaPlugin {
         return this.userStorage;
     }
 
+    public StorageExecutor getStorageExecutor() {
+        return this.storageExecutor;
+    }
+
     public ScoreboardManager getScoreboardManager() {
         return this.scoreboardManager;
     }
 
+    public LeaderboardManager getLeaderboardManager() {
+        return this.leaderboardManager;
+    }
+
+    /**
+     * Forget the cached placeholder results of a player, such as when their stats changed.
+     *
+     * @param uuid The UUID of the player.
+     */
+    public void invalidatePlaceholders(@NonNull UUID uuid) {
+        if (this.placeholderExtension != null) {
+            this.placeholderExtension.invalidate(uuid);
+        }
+    }
+
+    /**
+     * Forget the cached placeholder results of every player, such as when a game changed.
+     */
+    public void invalidateAllPlaceholders() {
+        if (this.placeholderExtension != null) {
+            this.placeholderExtension.invalidateAll();
+        }
+    }
+
     public RunnableManager getRunnableManager() {
         return this.runnableManager;
     }
@@ -436,6 +573,13 @@ public final class DodgeballPlugin extends JavaPlugin {
         return null;
     }
 
+    /**
+     * @return The current snapshot of the plugin settings, read from config.yml, lobby.yml and messages.yml.
+     */
+    public Settings getSettings() {
+        return this.settings;
+    }
+
     public GameFileStorage getPluginConfig() {
         return this.pluginConfig;
     }
@@ -461,13 +605,32 @@ public final class DodgeballPlugin extends JavaPlugin {
     }
 
     public void removeGame(@NonNull String gameId) {
-        this.games.remove(gameId);
+        this.unregisterGame(gameId);
 
         // Remove the game from the game store if it exists there
         this.gameStorage.set("registeredGames." + gameId, null);
+        if (this.gameDataWatcher != null) {
+            this.gameDataWatcher.markSaved();
+        }
+    }
+
+    /**
+     * Remove a game from the loaded games, without removing it from game_data.yml.
+     *
+     * @param gameId The id of the game to remove.
+     */
+    public void unregisterGame(@NonNull String gameId) {
+        Game game = this.games.remove(gameId);
+        if (game != null) {
+            this.playerGameIndex.removeGame(game);
+        }
     }
 
     public Map<String, Game> getGames() {
         return this.games;
     }
+
+    public PlayerGameIndex getPlayerGameIndex() {
+        return this.playerGameIndex;
+    }
 }
\ No newline at end of file
@@ -1,25 +1,48 @@
 package com.github.liamdev06.mc.sddodgeball;
 
 import com.github.liamdev06.mc.sddodgeball.game.Game;
-import com.github.liamdev06.mc.sddodgeball.game.GameHelper;
 import com.github.liamdev06.mc.sddodgeball.game.enums.GameTeam;
+import com.github.liamdev06.mc.sddodgeball.leaderboard.Leaderboard;
+import com.github.liamdev06.mc.sddodgeball.managers.LeaderboardManager;
 import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
-import org.bukkit.entity.Player;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PlaceholderAPIExtension extends PlaceholderExpansion {
 
     private static final @NonNull String INVALID = "[invalid]";
 
     private final @NonNull DodgeballPlugin plugin;
+    private final @NonNull Map<String, PlayerPlaceholder> placeholders;
+    private final @NonNull Map<UUID, Results> playerResults;
+    private final @NonNull Results globalResults;
+    private final @NonNull AtomicLong generation;
 
     public PlaceholderAPIExtension(@NonNull DodgeballPlugin plugin) {
         this.plugin = plugin;
+        this.playerResults = new ConcurrentHashMap<>();
+        this.globalResults = new Results();
+        this.generation = new AtomicLong();
+
+        // Placeholders that are looked up by their exact name
+        this.placeholders = new HashMap<>();
+        this.placeholders.put("playersleft", (player, user) -> this.getPlayersLeft(player));
+        for (UserStat stat : UserStat.values()) {
+            this.placeholders.put(stat.getPlaceholder(), (player, user) -> String.valueOf(user.getStat(stat)));
+        }
+
+        // Results are only reused within the same tick, moving on to the next generation is all that is done every tick
+        Bukkit.getScheduler().runTaskTimer(plugin, this::invalidateAll, 1, 1);
     }
 
     @Override
@@ -47,56 +70,165 @@ public class PlaceholderAPIExtension extends PlaceholderExpansion {
 
     @Override
     public String onRequest(OfflinePlayer player, @NonNull String params) {
+        // Leaderboard ranks, these do not need a player so they can be used in holograms
+        // Used like top_<stat>_<rank>_name or top_<stat>_<rank>_value, for example top_lifetime_kills_1_name
+        if (params.startsWith("top_")) {
+            return this.globalResults.current(this.generation.get()).computeIfAbsent(params, key -> this.getTopPlaceholder(key.substring(4)));
+        }
+
+        if (player == null) {
+            return "";
+        }
+
+        // Reuse the result if the placeholder was already resolved for the player this tick
+        UUID uuid = player.getUniqueId();
+        Map<String, String> results = this.playerResults.computeIfAbsent(uuid, key -> new Results()).current(this.generation.get());
+        String result = results.get(params);
+        if (result != null) {
+            return result;
+        }
+
+        result = this.resolve(player, params);
+        if (result != null) {
+            results.put(params, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Forget the results of a player, such as when their stats or game changed or when they leave.
+     *
+     * @param uuid The UUID of the player.
+     */
+    public void invalidate(@NonNull UUID uuid) {
+        this.playerResults.remove(uuid);
+    }
+
+    /**
+     * Forget every result, done every tick and when games change. The results are
+     * cleared the next time they are requested, so the same maps are reused every tick.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+    }
+
+    private String resolve(@NonNull OfflinePlayer player, @NonNull String params) {
         User user = this.plugin.getUserStorage().getCachedUser(player.getUniqueId());
         if (user == null) {
             return "";
         }
 
-        // Members on each side if the player is in a game
-        // Returns a string like follows: TeamOneDisplayName: TeamOnePlayersLeft - TeamTwoDisplayName: TeamTwoPlayersLeft
-        if (params.equals("playersleft")) {
-            Player target = Bukkit.getPlayer(player.getUniqueId());
-            if (target == null) {
-                return INVALID;
-            }
+        PlayerPlaceholder placeholder = this.placeholders.get(params);
+        if (placeholder != null) {
+            return placeholder.resolve(player, user);
+        }
 
-            // Get the game from the online player
-            Game game = GameHelper.getGameFromPlayer(target);
-            if (game == null) {
+        // The rank of the user on a leaderboard, used like rank_<stat>
+        if (params.startsWith("rank_")) {
+            UserStat stat = UserStat.fromPlaceholder(params.substring(5));
+            if (stat == null) {
                 return INVALID;
             }
 
-            List<GameTeam> playableTeams = game.getPlayableTeams();
-            if (playableTeams.size() != 2) {
-                return INVALID;
-            }
+            int rank = this.plugin.getLeaderboardManager().getLeaderboard(stat).getRank(user.getUuid());
+            return rank == -1 ? "-" : String.valueOf(rank);
+        }
 
-            GameTeam teamOne = playableTeams.get(0);
-            GameTeam teamTwo = playableTeams.get(1);
+        return null; // Placeholder is unknown by the Expansion
+    }
 
-            return teamOne.getDisplayName() + ": " + teamTwo.getAlivePlayers().size() + " - " + teamTwo.getDisplayName() + ": " + teamTwo.getAlivePlayers().size();
+    /**
+     * Members on each side if the player is in a game.
+     * Returns a string like follows: TeamOneDisplayName: TeamOnePlayersLeft - TeamTwoDisplayName: TeamTwoPlayersLeft
+     *
+     * @param player The player to get the game from.
+     * @return The players left on each team.
+     */
+    private @NonNull String getPlayersLeft(@NonNull OfflinePlayer player) {
+        Game game = this.plugin.getPlayerGameIndex().getGame(player.getUniqueId());
+        if (game == null) {
+            return INVALID;
         }
 
-        // Users level
-        if (params.equals("level")) {
-            return String.valueOf(user.getLevel());
+        List<GameTeam> playableTeams = game.getPlayableTeams();
+        if (playableTeams.size() != 2) {
+            return INVALID;
         }
 
-        // Coins earned through games
-        if (params.equals("coins")) {
-            return String.valueOf(user.getCoins());
+        GameTeam teamOne = playableTeams.get(0);
+        GameTeam teamTwo = playableTeams.get(1);
+
+        return teamOne.getDisplayName() + ": " + teamOne.getAliveCount() + " - " + teamTwo.getDisplayName() + ": " + teamTwo.getAliveCount();
+    }
+
+    /**
+     * @param params The placeholder without the 'top_' prefix, like lifetime_kills_1_name.
+     * @return The name or value of the user at the rank, an empty string if no user has the rank yet.
+     */
+    private String getTopPlaceholder(@NonNull String params) {
+        int fieldIndex = params.lastIndexOf('_');
+        int rankIndex = fieldIndex == -1 ? -1 : params.lastIndexOf('_', fieldIndex - 1);
+        if (rankIndex == -1) {
+            return INVALID;
         }
 
-        // User lifetime kills
-        if (params.equals("lifetime_kills")) {
-            return String.valueOf(user.getLifetimeKills());
+        UserStat stat = UserStat.fromPlaceholder(params.substring(0, rankIndex));
+        if (stat == null) {
+            return INVALID;
         }
 
-        // User lifetime deaths
-        if (params.equals("lifetime_deaths")) {
-            return String.valueOf(user.getLifetimeDeaths());
+        int rank;
+        try {
+            rank = Integer.parseInt(params.substring(rankIndex + 1, fieldIndex));
+        } catch (NumberFormatException exception) {
+            return INVALID;
         }
 
-        return null; // Placeholder is unknown by the Expansion
+        LeaderboardManager leaderboardManager = this.plugin.getLeaderboardManager();
+        Leaderboard.Entry entry = leaderboardManager.getLeaderboard(stat).getEntry(rank);
+        if (entry == null) {
+            return "";
+        }
+
+        return switch (params.substring(fieldIndex + 1)) {
+            case "name" -> leaderboardManager.getName(entry.uuid());
+            case "value" -> String.valueOf(entry.score());
+            default -> INVALID;
+        };
+    }
+
+    /**
+     * Resolved placeholders that are only valid for the generation they were resolved in.
+     */
+    private static final class Results {
+
+        private final @NonNull Map<String, String> values = new ConcurrentHashMap<>();
+        private volatile long generation;
+
+        /**
+         * @param generation The current generation.
+         * @return The results of the generation, cleared first if they are from an older one.
+         */
+        private @NonNull Map<String, String> current(long generation) {
+            if (this.generation != generation) {
+                synchronized (this) {
+                    if (this.generation != generation) {
+                        this.values.clear();
+                        this.generation = generation;
+                    }
+                }
+            }
+
+            return this.values;
+        }
+    }
+
+    /**
+     * Resolves a placeholder for a player with a loaded user.
+     */
+    @FunctionalInterface
+    private interface PlayerPlaceholder {
+        String resolve(@NonNull OfflinePlayer player, @NonNull User user);
     }
 }
@@ -0,0 +1,39 @@
+package com.github.liamdev06.mc.sddodgeball.api.events;
+
+import com.github.liamdev06.mc.sddodgeball.game.Game;
+import com.github.liamdev06.mc.sddodgeball.game.enums.GameTeam;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Event that is triggered whenever the last alive player of a playable team in a game is removed.
+ */
+public class TeamEliminatedEvent extends Event {
+
+    private final @NonNull GameTeam eliminatedTeam;
+    private final @NonNull Game affectedGame;
+    private static final HandlerList HANDLERS_LIST = new HandlerList();
+
+    public TeamEliminatedEvent(@NonNull GameTeam eliminatedTeam, @NonNull Game affectedGame) {
+        this.eliminatedTeam = eliminatedTeam;
+        this.affectedGame = affectedGame;
+    }
+
+    @Override
+    public @NonNull HandlerList getHandlers() {
+        return HANDLERS_LIST;
+    }
+
+    public static @NonNull HandlerList getHandlerList() {
+        return HANDLERS_LIST;
+    }
+
+    public @NonNull Game getAffectedGame() {
+        return this.affectedGame;
+    }
+
+    public @NonNull GameTeam getEliminatedTeam() {
+        return this.eliminatedTeam;
+    }
+}
@@ -22,7 +22,7 @@ public class DodgeballAdminCommand extends AbstractPlayerCommand {
     public DodgeballAdminCommand(@NonNull DodgeballPlugin plugin) {
         super("dbadmin", new TabCompleteData(
                         new TabOption(1,
-                                "setlobby", "setupgame", "setwaitinglobby", "createteam", "deleteteam", "playablearea", "completesetup")
+                                "setlobby", "setupgame", "setwaitinglobby", "createteam", "deleteteam", "playablearea", "completesetup", "migrateusers", "reload")
                 ),
                 new SetLobbySubcommand(plugin),
                 new SetupGameSubcommand(plugin),
@@ -31,7 +31,9 @@ public class DodgeballAdminCommand extends AbstractPlayerCommand {
                 new SetWaitingLobbySubcommand(plugin),
                 new PlayableAreaSubcommand(plugin),
                 new CreateTeamSubCommand(plugin),
-                new CompleteSetupSubcommand(plugin)
+                new CompleteSetupSubcommand(plugin),
+                new MigrateUsersSubcommand(plugin),
+                new ReloadSubcommand(plugin)
         );
     }
 
@@ -58,6 +60,8 @@ public class DodgeballAdminCommand extends AbstractPlayerCommand {
             case "deleteteam" -> this.callSubcommand(player, "dbadmin_deleteteam", args);
             case "playablearea" -> this.callSubcommand(player, "dbadmin_playablearea", args);
             case "completesetup" -> this.callSubcommand(player, "dbadmin_completesetup", args);
+            case "migrateusers" -> this.callSubcommand(player, "dbadmin_migrateusers", args);
+            case "reload" -> this.callSubcommand(player, "dbadmin_reload", args);
             default -> MessageHelper.sendMessage(player, "command.dbadmin.invalid-argument");
         }
     }
@@ -0,0 +1,105 @@
+package com.github.liamdev06.mc.sddodgeball.commands.subcommands;
+
+import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
+import com.github.liamdev06.mc.sddodgeball.commands.core.AbstractPlayerSubcommand;
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.storage.user.storage.ShardedUserStorage;
+import com.github.liamdev06.mc.sddodgeball.utility.DefaultSound;
+import com.github.liamdev06.mc.sddodgeball.utility.PermissionHelper;
+import com.github.liamdev06.mc.sddodgeball.utility.SoundHelper;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.LibColor;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MessageHelper;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MsgReplace;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sub-command for /dbadmin. Converts every user in player_data.yml
+ * into the per-user files used by the sharded user storage.
+ */
+public class MigrateUsersSubcommand extends AbstractPlayerSubcommand {
+
+    private final @NonNull DodgeballPlugin plugin;
+
+    public MigrateUsersSubcommand(@NonNull DodgeballPlugin plugin) {
+        super("dbadmin_migrateusers");
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void onPlayerSubcommand(@NonNull Player player, @NonNull String[] args) {
+        // Checks if player has permission
+        if (!PermissionHelper.hasAdminCommandPermission(player, "migrateusers")) {
+            MessageHelper.sendMessage(player, "command.dbadmin.no-permission", new MsgReplace("permission", "dbadmin.command.migrateusers"));
+            return;
+        }
+
+        GameFileStorage playerData = this.plugin.getPlayerDataFileStorage();
+        ConfigurationSection section = playerData.getSection("user_data");
+        if (section == null) {
+            player.sendMessage(LibColor.colorMessage("&c&lNO USERS! &cThere are no users stored in player_data.yml to migrate."));
+            return;
+        }
+
+        // Copy every user while still on the main thread
+        Map<UUID, Map<String, Object>> users = new HashMap<>();
+        for (String key : section.getKeys(false)) {
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(key);
+            } catch (IllegalArgumentException exception) {
+                this.plugin.getLogger().warning("Skipped migrating the user '" + key + "' since it is not a valid UUID.");
+                continue;
+            }
+
+            Map<String, Object> values = new HashMap<>();
+            ConfigurationSection userSection = section.getConfigurationSection(key);
+            if (userSection != null) {
+                for (String valueKey : userSection.getKeys(false)) {
+                    values.put(valueKey, userSection.get(valueKey));
+                }
+            }
+
+            users.put(uuid, values);
+        }
+
+        player.sendMessage(LibColor.colorMessage("&eMigrating &6" + users.size() + "&e users..."));
+
+        // Write the files off the main thread, users that already have a file are kept as they are
+        File directory = ShardedUserStorage.getDirectory(this.plugin);
+        Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> {
+            int migrated = 0, skipped = 0;
+            for (Map.Entry<UUID, Map<String, Object>> entry : users.entrySet()) {
+                if (ShardedUserStorage.getUserFile(directory, entry.getKey()).exists()) {
+                    skipped++;
+                    continue;
+                }
+
+                try {
+                    ShardedUserStorage.writeUserFile(directory, entry.getKey(), entry.getValue());
+                    migrated++;
+                } catch (IllegalStateException exception) {
+                    exception.printStackTrace();
+                    skipped++;
+                }
+            }
+
+            final int migratedUsers = migrated, skippedUsers = skipped;
+            Bukkit.getScheduler().runTask(this.plugin, () -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+
+                SoundHelper.playDefaultSound(player, DefaultSound.SUCCESS_MAJOR);
+                player.sendMessage(LibColor.colorMessage("&2&lUSERS MIGRATED! &2Migrated &6" + migratedUsers + "&2 users, skipped &6" + skippedUsers + "&2. Set &6storage&2 to &6sharded&2 in config.yml and restart to use them."));
+            });
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.liamdev06.mc.sddodgeball.commands.subcommands;
+
+import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
+import com.github.liamdev06.mc.sddodgeball.commands.core.AbstractPlayerSubcommand;
+import com.github.liamdev06.mc.sddodgeball.utility.DefaultSound;
+import com.github.liamdev06.mc.sddodgeball.utility.PermissionHelper;
+import com.github.liamdev06.mc.sddodgeball.utility.SoundHelper;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.LibColor;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MessageHelper;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MsgReplace;
+import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Sub-command for /dbadmin. Reloads config.yml, lobby.yml and messages.yml
+ * without restarting the server or stopping running games.
+ */
+public class ReloadSubcommand extends AbstractPlayerSubcommand {
+
+    private final @NonNull DodgeballPlugin plugin;
+
+    public ReloadSubcommand(@NonNull DodgeballPlugin plugin) {
+        super("dbadmin_reload");
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void onPlayerSubcommand(@NonNull Player player, @NonNull String[] args) {
+        // Checks if player has permission
+        if (!PermissionHelper.hasAdminCommandPermission(player, "reload")) {
+            MessageHelper.sendMessage(player, "command.dbadmin.no-permission", new MsgReplace("permission", "dbadmin.command.reload"));
+            return;
+        }
+
+        player.sendMessage(LibColor.colorMessage("&eReloading config.yml, lobby.yml and messages.yml..."));
+        final long time = System.currentTimeMillis();
+
+        this.plugin.reloadSettings().thenAccept(problems -> {
+            if (!player.isOnline()) {
+                return;
+            }
+
+            // Keep the current settings if any file is invalid
+            if (!problems.isEmpty()) {
+                SoundHelper.playDefaultSound(player, DefaultSound.ERROR);
+                player.sendMessage(LibColor.colorMessage("&c&lRELOAD FAILED! &cThe current settings were kept, fix these problems and try again:"));
+                for (String problem : problems) {
+                    player.sendMessage(LibColor.colorMessage("&c● " + problem));
+                }
+                return;
+            }
+
+            SoundHelper.playDefaultSound(player, DefaultSound.SUCCESS_MAJOR);
+            player.sendMessage(LibColor.colorMessage("&2&lRELOADED! &2The settings were reloaded in &6" + (System.currentTimeMillis() - time) + "ms&2."));
+        });
+    }
+}
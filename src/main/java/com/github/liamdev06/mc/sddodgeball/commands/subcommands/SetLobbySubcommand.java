@@ -11,6 +11,7 @@ import com.github.liamdev06.mc.sddodgeball.utility.DefaultSound;
 import com.github.liamdev06.mc.sddodgeball.utility.messaging.LibColor;
 import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MessageHelper;
 import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MsgReplace;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -23,12 +24,10 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 public class SetLobbySubcommand extends AbstractPlayerSubcommand {
 
     private final @NonNull DodgeballPlugin plugin;
-    private final @NonNull GameFileStorage lobbyConfig;
 
     public SetLobbySubcommand(@NonNull DodgeballPlugin plugin) {
         super("dbadmin_setlobby");
         this.plugin = plugin;
-        this.lobbyConfig = plugin.getLobbyConfig();
     }
 
     @Override
@@ -44,8 +43,10 @@ public class SetLobbySubcommand extends AbstractPlayerSubcommand {
         String serializedLocation = LocationHelper.writeLocation(location);
 
         // Set the server lobby to the player's current location
-        this.lobbyConfig.setAsync("environment.lobby", serializedLocation).thenAccept((v) -> {
+        // The settings and scoreboards are only touched on the main thread, so hop back once the lobby is saved
+        this.plugin.getLobbyConfig().setAsync("environment.lobby", serializedLocation).thenAccept((v) -> Bukkit.getScheduler().runTask(this.plugin, () -> {
             ScoreboardManager manager = this.plugin.getScoreboardManager();
+            this.plugin.loadSettings();
 
             // Apply to players in the world
             World world = location.getWorld();
@@ -55,10 +56,14 @@ public class SetLobbySubcommand extends AbstractPlayerSubcommand {
                 }
             }
 
+            if (!player.isOnline()) {
+                return;
+            }
+
             SoundHelper.playDefaultSound(player, DefaultSound.SUCCESS_LIGHT);
             String friendlyLobbyLocation = LocationHelper.friendlyLocationText(location, ChatColor.GREEN, ChatColor.GOLD);
             player.sendMessage(LibColor.colorMessage("&a&lLOBBY SET! &aThe lobby location was set to " + friendlyLobbyLocation + "."));
-        });
+        }));
     }
 }
 
@@ -26,13 +26,11 @@ public class SetupGameSubcommand extends AbstractPlayerSubcommand {
 
     private final @NonNull DodgeballPlugin plugin;
     private final @NonNull WorldManager worldManager;
-    private final @NonNull GameFileStorage config;
 
     public SetupGameSubcommand(@NonNull DodgeballPlugin plugin) {
         super("dbadmin_setupgame");
         this.plugin = plugin;
         this.worldManager = plugin.getWorldManager();
-        this.config = plugin.getPluginConfig();
     }
 
     @Override
@@ -52,11 +50,12 @@ public class SetupGameSubcommand extends AbstractPlayerSubcommand {
         GameSetupHelper.savePlayer(player);
 
         // Set up a new modified world
-        int currentGameIndex = this.config.getInt("current-game-index");
+        GameFileStorage config = this.plugin.getPluginConfig();
+        int currentGameIndex = config.getInt("current-game-index");
         World world = this.worldManager.setupModifiedWorld("dodgeball_arena_" + currentGameIndex);
 
         // Increment the game index
-        this.config.set("current-game-index", currentGameIndex + 1);
+        config.set("current-game-index", currentGameIndex + 1);
 
         if (world == null) {
             player.sendMessage(LibColor.colorMessage("&c&lERROR! &cSomething went wrong when creating the world, check the console!"));
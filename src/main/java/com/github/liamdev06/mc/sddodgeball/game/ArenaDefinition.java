@@ -0,0 +1,115 @@
+package com.github.liamdev06.mc.sddodgeball.game;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A game as it is written in the 'registeredGames' section of game_data.yml, parsed and checked
+ * without touching any worlds. This lets arenas be read off the main thread, while their worlds
+ * and locations are only created once the game itself is created on the main thread.
+ *
+ * @param gameId The id of the game.
+ * @param enabled If the game is enabled.
+ * @param worldName The name of the world of the game.
+ * @param waitingLobbySpawn The waiting lobby spawn, in the format of {@link com.github.liamdev06.mc.sddodgeball.utility.location.LocationHelper#writeLocation}.
+ * @param teams The teams of the game.
+ */
+public record ArenaDefinition(@NonNull String gameId, boolean enabled, @NonNull String worldName,
+                              @NonNull String waitingLobbySpawn, @NonNull List<TeamDefinition> teams) {
+
+    /**
+     * Parse a game from the 'registeredGames' section.
+     *
+     * @param gameId The id of the game to parse.
+     * @param gamesSection The 'registeredGames' section to parse it from.
+     * @return The parsed game.
+     * @throws IllegalArgumentException If the game is invalid.
+     */
+    public static @NonNull ArenaDefinition parse(@NonNull String gameId, @NonNull ConfigurationSection gamesSection) {
+        final String path = gameId + ".";
+        String worldName = gamesSection.getString(path + "worldName", "");
+        if (worldName.isEmpty()) {
+            throw new IllegalArgumentException("The world name is missing in the game " + gameId);
+        }
+
+        String waitingLobbySpawn = gamesSection.getString(path + "waitingLobbySpawn", "");
+        if (!isLocation(waitingLobbySpawn)) {
+            throw new IllegalArgumentException("The waiting lobby spawn location is broken in the game " + gameId);
+        }
+
+        // Parse teams
+        List<TeamDefinition> teams = new ArrayList<>();
+        ConfigurationSection teamsSection = gamesSection.getConfigurationSection(path + "team");
+        if (teamsSection != null) {
+            for (String teamId : teamsSection.getKeys(false)) {
+                final String teamPath = teamId + ".";
+
+                ChatColor chatColor;
+                try {
+                    chatColor = ChatColor.valueOf(teamsSection.getString(teamPath + "chatColor", "RED").toUpperCase());
+                } catch (IllegalArgumentException exception) {
+                    throw new IllegalArgumentException("The chat color of the team " + teamId + " is broken in the game " + gameId);
+                }
+
+                String positionOne = teamsSection.getString(teamPath + "locationPair.one", "");
+                String positionTwo = teamsSection.getString(teamPath + "locationPair.two", "");
+                if (!isLocation(positionOne) || !isLocation(positionTwo)) {
+                    throw new IllegalArgumentException("The playable locations spawn locations are broken in the game " + gameId);
+                }
+
+                teams.add(new TeamDefinition(
+                        teamId,
+                        teamsSection.getString(teamPath + "displayName", "DISPLAYNAME_ERROR"),
+                        teamsSection.getString(teamPath + "prefix", "PREFIX_ERROR"),
+                        chatColor,
+                        teamsSection.getBoolean(teamPath + "playable"),
+                        positionOne,
+                        positionTwo
+                ));
+            }
+        }
+
+        return new ArenaDefinition(gameId, gamesSection.getBoolean(path + "enabled"), worldName, waitingLobbySpawn, List.copyOf(teams));
+    }
+
+    /**
+     * Check the format of a written location, without checking if its world exists.
+     *
+     * @param input The written location.
+     * @return If the location has a world and three or five numbers.
+     */
+    private static boolean isLocation(@NonNull String input) {
+        String[] args = input.split(",");
+        if (input.isEmpty() || (args.length != 4 && args.length != 6)) {
+            return false;
+        }
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                Double.parseDouble(args[i]);
+            }
+        } catch (NumberFormatException exception) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * A team of a game as it is written in game_data.yml.
+     *
+     * @param id The id of the team.
+     * @param displayName The display name of the team.
+     * @param prefix The prefix of the team.
+     * @param chatColor The chat color of the team.
+     * @param playable If players can be put on the team.
+     * @param positionOne The first corner of the playable area.
+     * @param positionTwo The second corner of the playable area.
+     */
+    public record TeamDefinition(@NonNull String id, @NonNull String displayName, @NonNull String prefix, @NonNull ChatColor chatColor,
+                                 boolean playable, @NonNull String positionOne, @NonNull String positionTwo) {}
+}
@@ -11,6 +11,7 @@ public class BlockLocationPair {
 
     private Location positionOne;
     private Location positionTwo;
+    private Region region;
 
     public boolean isBothPositionSet() {
         return this.isPositionOneSet() && this.isPositionTwoSet();
@@ -26,10 +27,19 @@ public class BlockLocationPair {
 
     public void setPositionOne(@NonNull Location positionOne) {
         this.positionOne = new Location(positionOne.getWorld(), positionOne.getBlockX(), positionOne.getBlockY(), positionOne.getBlockZ());
+        this.updateRegion();
     }
 
     public void setPositionTwo(@NonNull Location positionTwo) {
         this.positionTwo = new Location(positionTwo.getWorld(), positionTwo.getBlockX(), positionTwo.getBlockY(), positionTwo.getBlockZ());
+        this.updateRegion();
+    }
+
+    /**
+     * Recalculates the cached region whenever one of the positions change.
+     */
+    private void updateRegion() {
+        this.region = this.isBothPositionSet() ? Region.fromCorners(this.positionOne, this.positionTwo) : null;
     }
 
     public @Nullable Location getPositionOne() {
@@ -39,4 +49,11 @@ public class BlockLocationPair {
     public @Nullable Location getPositionTwo() {
         return this.positionTwo;
     }
+
+    /**
+     * @return The cuboid between both positions, or null if both positions are not set.
+     */
+    public @Nullable Region getRegion() {
+        return this.region;
+    }
 }
\ No newline at end of file
@@ -2,20 +2,22 @@ package com.github.liamdev06.mc.sddodgeball.game;
 
 import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import com.github.liamdev06.mc.sddodgeball.api.events.GameStateChangeEvent;
+import com.github.liamdev06.mc.sddodgeball.api.events.TeamEliminatedEvent;
 import com.github.liamdev06.mc.sddodgeball.game.enums.GameState;
 import com.github.liamdev06.mc.sddodgeball.game.enums.GameTeam;
-import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.managers.ScoreboardManager;
 import com.github.liamdev06.mc.sddodgeball.utility.fastboard.FastBoard;
-import com.github.liamdev06.mc.sddodgeball.utility.messaging.LibColor;
+import com.github.liamdev06.mc.sddodgeball.utility.scoreboard.ScoreboardRenderer;
+import com.github.liamdev06.mc.sddodgeball.utility.scoreboard.ScoreboardTemplate;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Main game class. Stores information about each game.
@@ -24,33 +26,35 @@ import java.util.stream.Collectors;
 public class Game {
 
     private final @NonNull DodgeballPlugin plugin;
-    private final @NonNull GameFileStorage config;
     private boolean enabled;
-    private final @NonNull Set<GameTeam> teams;
-    private final @NonNull List<GamePlayer> players;
-    private final @NonNull Map<UUID, FastBoard> fastBoards;
+    private final @NonNull Map<String, GameTeam> teams;
+    private @NonNull Map<String, GameTeam> teamsById;
+    private @NonNull List<GameTeam> playableTeams;
+    private final @NonNull Map<UUID, GamePlayer> players;
+    private final @NonNull Map<UUID, ScoreboardRenderer> scoreboards;
     private final @NonNull List<Item> snowballs;
     private @NonNull GameState gameState;
     private final @NonNull String worldName, gameId;
     private Location waitingLobbySpawn;
+    private @Nullable GameTeam winningTeam;
     private int waitingCountdown;
 
     public Game(@NonNull DodgeballPlugin plugin, @NonNull String gameId, @NonNull String worldName) {
         this.plugin = plugin;
         this.enabled = false;
         this.gameId = gameId;
-        this.config = plugin.getPluginConfig();
-        this.fastBoards = new HashMap<>();
-        this.teams = new HashSet<>();
-        this.players = new ArrayList<>();
+        this.scoreboards = new HashMap<>();
+        this.teams = new LinkedHashMap<>();
+        this.players = new LinkedHashMap<>();
         this.gameState = GameState.SETUP;
         this.worldName = worldName;
-        this.waitingCountdown = this.config.getInt("game.waiting-timer");
+        this.waitingCountdown = this.plugin.getSettings().game().waitingTimer();
         this.snowballs = new ArrayList<>();
 
         // Create a new team for spectators and none
-        this.teams.add(new GameTeam("none", "N/A", ChatColor.GRAY, "&7&lN/A", false));
-        this.teams.add(new GameTeam("spectator", "Spectator", ChatColor.GRAY, "&2&lSpec", false));
+        this.teams.put("none", new GameTeam("none", "N/A", ChatColor.GRAY, "&7&lN/A", false));
+        this.teams.put("spectator", new GameTeam("spectator", "Spectator", ChatColor.GRAY, "&2&lSpec", false));
+        this.rebuildTeamViews();
     }
 
     public @NonNull String getGameId() {
@@ -61,17 +65,18 @@ public class Game {
         UUID uuid = player.getUniqueId();
 
         // Create and add the player
-        GamePlayer gamePlayer = new GamePlayer(this.gameId, uuid, "none");
-        this.players.add(gamePlayer);
+        GamePlayer gamePlayer = new GamePlayer(this.gameId, uuid, this.getTeamById("none"));
+        this.players.put(uuid, gamePlayer);
+        this.plugin.getPlayerGameIndex().index(this, gamePlayer);
+        this.plugin.invalidateAllPlaceholders();
 
         // Create a new scoreboard sidebar if the player does not have it
-        if (!this.fastBoards.containsKey(uuid)) {
+        if (!this.scoreboards.containsKey(uuid)) {
             FastBoard fastBoard = new FastBoard(player);
 
             // Set the title
-            String scoreboardTitle = this.config.getString("game.scoreboard.title");
-            fastBoard.updateTitle(LibColor.colorMessage(scoreboardTitle));
-            this.fastBoards.put(uuid, fastBoard);
+            fastBoard.updateTitle(this.plugin.getScoreboardManager().getGameTitle());
+            this.scoreboards.put(uuid, new ScoreboardRenderer(fastBoard));
         }
 
         // Teleport the player to the waiting spawn
@@ -85,94 +90,140 @@ public class Game {
         UUID uuid = player.getUniqueId();
 
         // Get the game player and remove
-        GamePlayer gamePlayer = this.getGamePlayer(player);
-        this.players.remove(gamePlayer);
+        GamePlayer gamePlayer = this.players.remove(uuid);
+        this.plugin.getPlayerGameIndex().remove(uuid);
+        this.plugin.invalidateAllPlaceholders();
         gamePlayer.resetBukkitValues();
 
         // Clear scoreboard
-        if (this.fastBoards.containsKey(uuid)) {
-            FastBoard fastBoard = this.fastBoards.get(uuid);
-            fastBoard.delete();
-
-            this.fastBoards.remove(uuid);
+        ScoreboardRenderer scoreboard = this.scoreboards.remove(uuid);
+        if (scoreboard != null) {
+            scoreboard.getBoard().delete();
         }
 
         // Check if go back to pre-waiting
-        if (this.gameState == GameState.WAITING && this.players.size() < this.config.getInt("game.players-to-start-timer")) {
+        if (this.gameState == GameState.WAITING && this.players.size() < this.plugin.getSettings().game().playersToStartTimer()) {
             this.resetValues();
         }
     }
 
+    /**
+     * Update the scoreboard of every player in the game. Only the lines whose
+     * placeholder values changed since the last update are rendered and sent.
+     */
     public void updateScoreboard() {
-        for (FastBoard board : this.fastBoards.values()) {
-            GamePlayer gamePlayer = this.getGamePlayer(board.getPlayer());
+        ScoreboardManager scoreboardManager = this.plugin.getScoreboardManager();
+        boolean waiting = this.gameState.isWaiting();
+        ScoreboardTemplate template = waiting ? scoreboardManager.getWaitingTemplate() : scoreboardManager.getGameTemplate();
+
+        for (Map.Entry<UUID, ScoreboardRenderer> entry : this.scoreboards.entrySet()) {
+            GamePlayer gamePlayer = this.players.get(entry.getKey());
             if (gamePlayer == null) {
                 continue;
             }
 
-            List<String> lines;
-
-            // Update scoreboard lines for waiting stage
-            if (this.gameState.isWaiting()) {
-                lines = new ArrayList<>(this.config.getStringList("game.scoreboard.waiting-lines"));
-
-                for (int i = 0; i < lines.size(); i++) {
-                    String content = lines.get(i);
-                    content = LibColor.colorMessage(this.applyWaitingLinesReplacements(content));
-                    lines.set(i, content);
-                }
+            if (waiting) {
+                entry.getValue().render(template, this::resolveWaitingPlaceholder);
             } else {
-                // Update scoreboard lines for general stages
-                lines = new ArrayList<>(this.config.getStringList("game.scoreboard.game-lines"));
-
-                for (int i = 0; i < lines.size(); i++) {
-                    String content = lines.get(i);
-                    content = LibColor.colorMessage(this.applyWaitingLinesReplacements(gamePlayer, content));
-                    lines.set(i, content);
-                }
+                entry.getValue().render(template, placeholder -> this.resolveGamePlaceholder(gamePlayer, placeholder));
             }
+        }
+    }
 
-            board.updateLines(lines);
+    /**
+     * Set a new title on the scoreboard of every player in the game, such as after the settings were reloaded.
+     *
+     * @param title The colorized title.
+     */
+    public void updateScoreboardTitle(@NonNull String title) {
+        for (ScoreboardRenderer renderer : this.scoreboards.values()) {
+            FastBoard board = renderer.getBoard();
+            if (!board.isDeleted()) {
+                board.updateTitle(title);
+            }
         }
     }
 
     /**
-     * Applies message replacements for the waiting scoreboard lines.
+     * Resolves placeholders for the waiting scoreboard lines.
      *
-     * @param input Input line.
-     * @return The input with replacements.
+     * @param placeholder The placeholder name.
+     * @return The value of the placeholder, or null if it should not be replaced.
      */
-    private String applyWaitingLinesReplacements(@NonNull String input) {
-        return input.replace("{players}", String.valueOf(this.players.size()));
+    private Object resolveWaitingPlaceholder(@NonNull String placeholder) {
+        if (placeholder.equals("players")) {
+            return this.players.size();
+        }
+
+        return null;
     }
 
     /**
-     * Applies message replacements for the game scoreboard lines.
+     * Resolves placeholders for the game scoreboard lines.
      *
-     * @param input Input line.
-     * @return The input with replacements.
+     * @param gamePlayer The game player the scoreboard belongs to.
+     * @param placeholder The placeholder name.
+     * @return The value of the placeholder, or null if it should not be replaced.
      */
-    private String applyWaitingLinesReplacements(@NonNull GamePlayer gamePlayer, @NonNull String input) {
+    private Object resolveGamePlaceholder(@NonNull GamePlayer gamePlayer, @NonNull String placeholder) {
         GameTeam team = gamePlayer.getTeam();
-        GameTeam oppositeTeam = gamePlayer.getOppositeTeam();
-
-        input = input.replace("{balls_thrown}", String.valueOf(gamePlayer.getBallsThrown()))
-                .replace("{hits}", String.valueOf(gamePlayer.getHits()))
-                .replace("{team_left}", String.valueOf(team.getAlivePlayers().size()))
-                .replace("{team_prefix}", team.getPrefix())
-                .replace("{team_display_name}", team.getDisplayName())
-                .replace("{team_color}", team.getChatColor() + "");
-
-        if (oppositeTeam == null) {
-            return input;
-        } else {
-            return input.replace("{opposite_left}", String.valueOf(oppositeTeam.getAlivePlayers().size()))
-                    .replace("{opposite_prefix}", oppositeTeam.getPrefix())
-                    .replace("{opposite_display_name}", oppositeTeam.getDisplayName())
-                    .replace("{opposite_color}", oppositeTeam.getChatColor() + "");
+
+        // Only look up the opposite team when it is actually needed
+        if (placeholder.startsWith("opposite_")) {
+            GameTeam oppositeTeam = gamePlayer.getOppositeTeam();
+            if (oppositeTeam == null) {
+                return null;
+            }
+
+            return switch (placeholder) {
+                case "opposite_left" -> oppositeTeam.getAliveCount();
+                case "opposite_prefix" -> oppositeTeam.getPrefix();
+                case "opposite_display_name" -> oppositeTeam.getDisplayName();
+                case "opposite_color" -> oppositeTeam.getChatColor();
+                default -> null;
+            };
+        }
+
+        return switch (placeholder) {
+            case "balls_thrown" -> gamePlayer.getBallsThrown();
+            case "hits" -> gamePlayer.getHits();
+            case "team_left" -> team.getAliveCount();
+            case "team_prefix" -> team.getPrefix();
+            case "team_display_name" -> team.getDisplayName();
+            case "team_color" -> team.getChatColor();
+            default -> null;
+        };
+    }
+
+    /**
+     * Remove a player from the alive players of their team. If they were the last alive
+     * player of a playable team, a {@link TeamEliminatedEvent} is called.
+     *
+     * @param gamePlayer The game player to remove.
+     */
+    public void removeAlivePlayer(@NonNull GamePlayer gamePlayer) {
+        GameTeam team = gamePlayer.getTeam();
+        if (!team.removeAlivePlayer(gamePlayer.getUuid())) {
+            return;
+        }
+
+        this.plugin.invalidateAllPlaceholders();
+        if (team.isPlayable() && team.getAliveCount() == 0) {
+            this.plugin.getServer().getPluginManager().callEvent(new TeamEliminatedEvent(team, this));
         }
     }
 
+    /**
+     * @return The team that won the current game, or null if no team has won yet.
+     */
+    public @Nullable GameTeam getWinningTeam() {
+        return this.winningTeam;
+    }
+
+    public void setWinningTeam(@Nullable GameTeam winningTeam) {
+        this.winningTeam = winningTeam;
+    }
+
     public boolean isEnabled() {
         return this.enabled;
     }
@@ -182,15 +233,33 @@ public class Game {
     }
 
     public void addTeam(@NonNull GameTeam team) {
-        if (this.getTeamById(team.getId()) != null) {
-            return;
+        if (this.teams.putIfAbsent(team.getId(), team) == null) {
+            this.rebuildTeamViews();
         }
-
-        this.teams.add(team);
     }
 
     public void removeTeam(@NonNull String teamId) {
-        this.teams.removeIf(team -> team.getId().equals(teamId));
+        if (this.teams.remove(teamId) != null) {
+            this.rebuildTeamViews();
+        }
+    }
+
+    /**
+     * Rebuild the read-only team views after the teams changed, and point
+     * every player in the game at their team and opposite team again.
+     */
+    private void rebuildTeamViews() {
+        this.teamsById = Map.copyOf(this.teams);
+        this.playableTeams = this.teams.values()
+                .stream()
+                .filter(GameTeam::isPlayable)
+                .toList();
+
+        GameTeam noTeam = this.teamsById.get("none");
+        for (GamePlayer gamePlayer : this.players.values()) {
+            GameTeam team = this.teamsById.get(gamePlayer.getTeam().getId());
+            gamePlayer.setTeam(team == null ? noTeam : team);
+        }
     }
 
     public void setGameState(@NonNull GameState gameState) {
@@ -215,49 +284,40 @@ public class Game {
     }
 
     public GameTeam getTeamById(@NonNull String id) {
-        for (GameTeam team : this.teams) {
-            if (team.getId().equals(id)) {
-                return team;
-            }
-        }
-
-        return null;
+        return this.teamsById.get(id);
     }
 
-    public @NonNull Set<GameTeam> getTeams() {
-        return this.teams;
+    /**
+     * @return A read-only view of every team in the game, including the non playable ones.
+     */
+    public @NonNull Collection<GameTeam> getTeams() {
+        return this.teamsById.values();
     }
 
+    /**
+     * @return A read-only list of the playable teams, in the order they were added.
+     */
     public @NonNull List<GameTeam> getPlayableTeams() {
-        return this.teams.stream()
-                .filter(GameTeam::isPlayable)
-                .collect(Collectors.toList());
+        return this.playableTeams;
     }
 
     public boolean inGame(@NonNull UUID uuid) {
-        for (GamePlayer gamePlayer : this.players) {
-            if (gamePlayer.getUuid() == uuid) {
-                return true;
-            }
-        }
-
-        return false;
+        return this.players.containsKey(uuid);
     }
 
     public GamePlayer getGamePlayer(@NonNull Player player) {
-        UUID uuid = player.getUniqueId();
-
-        for (GamePlayer gamePlayer : this.players) {
-            if (gamePlayer.getUuid() == uuid) {
-                return gamePlayer;
-            }
-        }
+        return this.getGamePlayer(player.getUniqueId());
+    }
 
-        return null;
+    public GamePlayer getGamePlayer(@NonNull UUID uuid) {
+        return this.players.get(uuid);
     }
 
-    public @NonNull List<GamePlayer> getPlayers() {
-        return this.players;
+    /**
+     * @return All players in the game, in the order they joined.
+     */
+    public @NonNull Collection<GamePlayer> getPlayers() {
+        return this.players.values();
     }
 
     public void setWaitingLobbySpawn(@NonNull Location waitingLobbySpawn) {
@@ -277,11 +337,12 @@ public class Game {
     }
 
     public void resetWaitingCountdown() {
-        this.waitingCountdown = this.config.getInt("game.waiting-timer");
+        this.waitingCountdown = this.plugin.getSettings().game().waitingTimer();
     }
 
     public void resetValues() {
         this.resetWaitingCountdown();
+        this.winningTeam = null;
         this.setDelayedGameState(GameState.PRE_WAITING, 3);
         this.clearSnowballs();
     }
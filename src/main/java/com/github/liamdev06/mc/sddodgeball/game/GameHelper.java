@@ -5,8 +5,6 @@ import org.bukkit.entity.Player;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.UUID;
-
 public class GameHelper {
 
     private static final @NonNull DodgeballPlugin PLUGIN = DodgeballPlugin.getInstance();
@@ -18,14 +16,16 @@ public class GameHelper {
      * @return The game the target player is playing in.
      */
     public static @Nullable Game getGameFromPlayer(@NonNull Player player) {
-        UUID uuid = player.getUniqueId();
-
-        for (Game game : PLUGIN.getGames().values()) {
-            if (game.inGame(uuid)) {
-                return game;
-            }
-        }
+        return PLUGIN.getPlayerGameIndex().getGame(player.getUniqueId());
+    }
 
-        return null;
+    /**
+     * Get a GamePlayer object instance from a player who is playing in a game
+     *
+     * @param player The player to get the game player from.
+     * @return The game player of the target player, or null if the player is not in a game.
+     */
+    public static @Nullable GamePlayer getGamePlayerFromPlayer(@NonNull Player player) {
+        return PLUGIN.getPlayerGameIndex().getGamePlayer(player.getUniqueId());
     }
 }
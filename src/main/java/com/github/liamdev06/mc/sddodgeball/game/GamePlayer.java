@@ -7,8 +7,8 @@ import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -19,32 +19,28 @@ public class GamePlayer {
     private final @NonNull DodgeballPlugin plugin;
     private final @NonNull String gameId;
     private final @NonNull UUID uuid;
-    private @NonNull String teamId;
+    private @NonNull GameTeam team;
+    private @Nullable GameTeam oppositeTeam;
     private int ballsThrown, hits;
 
-    public GamePlayer(@NonNull String gameId, @NonNull UUID uuid, @NonNull String teamId) {
+    public GamePlayer(@NonNull String gameId, @NonNull UUID uuid, @NonNull GameTeam team) {
         this.gameId = gameId;
         this.plugin = DodgeballPlugin.getInstance();
         this.uuid = uuid;
-        this.teamId = teamId;
         this.ballsThrown = 0;
         this.hits = 0;
+        this.setTeam(team);
     }
 
     public @NonNull GameTeam getTeam() {
-        return this.getGame().getTeamById(this.teamId);
+        return this.team;
     }
 
-    public GameTeam getOppositeTeam() {
-        List<GameTeam> playableTeams = this.getGame().getPlayableTeams();
-
-        for (GameTeam team : playableTeams) {
-            if (!team.getId().equals(this.getTeam().getId())) {
-                return team;
-            }
-        }
-
-        return null;
+    /**
+     * @return The first playable team that is not the team of the player, or null if there is none.
+     */
+    public @Nullable GameTeam getOppositeTeam() {
+        return this.oppositeTeam;
     }
 
     /**
@@ -74,8 +70,26 @@ public class GamePlayer {
         }
     }
 
-    public void setTeamId(@NonNull String teamId) {
-        this.teamId = teamId;
+    /**
+     * Set the team of the player, and look up their opposite team once.
+     *
+     * @param team The new team of the player.
+     */
+    public void setTeam(@NonNull GameTeam team) {
+        this.team = team;
+        this.oppositeTeam = null;
+
+        Game game = this.getGame();
+        if (game == null) {
+            return;
+        }
+
+        for (GameTeam target : game.getPlayableTeams()) {
+            if (target != team) {
+                this.oppositeTeam = target;
+                break;
+            }
+        }
     }
 
     public int getBallsThrown() {
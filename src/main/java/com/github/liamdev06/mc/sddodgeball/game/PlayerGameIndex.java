@@ -0,0 +1,81 @@
+package com.github.liamdev06.mc.sddodgeball.game;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Central lookup of which game every player is currently playing in.
+ * Kept up to date by {@link Game#sendPlayer(org.bukkit.entity.Player)} and
+ * {@link Game#removePlayer(org.bukkit.entity.Player)} so a player's game can be resolved
+ * without looping over every registered game.
+ */
+public class PlayerGameIndex {
+
+    private final @NonNull Map<UUID, Game> games;
+    private final @NonNull Map<UUID, GamePlayer> gamePlayers;
+
+    public PlayerGameIndex() {
+        this.games = new HashMap<>();
+        this.gamePlayers = new HashMap<>();
+    }
+
+    /**
+     * Link a player to the game they just joined.
+     *
+     * @param game The game the player joined.
+     * @param gamePlayer The game player instance of the player.
+     */
+    public void index(@NonNull Game game, @NonNull GamePlayer gamePlayer) {
+        UUID uuid = gamePlayer.getUuid();
+        this.games.put(uuid, game);
+        this.gamePlayers.put(uuid, gamePlayer);
+    }
+
+    /**
+     * Unlink a player from the game they are playing in.
+     *
+     * @param uuid The UUID of the player to unlink.
+     */
+    public void remove(@NonNull UUID uuid) {
+        this.games.remove(uuid);
+        this.gamePlayers.remove(uuid);
+    }
+
+    /**
+     * Unlink all players that are linked to a specific game.
+     *
+     * @param game The game to unlink all players from.
+     */
+    public void removeGame(@NonNull Game game) {
+        this.games.values().removeIf(target -> target == game);
+        this.gamePlayers.values().removeIf(gamePlayer -> !this.games.containsKey(gamePlayer.getUuid()));
+    }
+
+    /**
+     * @param uuid The UUID of the player.
+     * @return The game the player is playing in, or null if the player is not in a game.
+     */
+    public @Nullable Game getGame(@NonNull UUID uuid) {
+        return this.games.get(uuid);
+    }
+
+    /**
+     * @param uuid The UUID of the player.
+     * @return The game player instance of the player, or null if the player is not in a game.
+     */
+    public @Nullable GamePlayer getGamePlayer(@NonNull UUID uuid) {
+        return this.gamePlayers.get(uuid);
+    }
+
+    /**
+     * @param uuid The UUID of the player.
+     * @return If the player is playing in any game.
+     */
+    public boolean isInGame(@NonNull UUID uuid) {
+        return this.games.containsKey(uuid);
+    }
+}
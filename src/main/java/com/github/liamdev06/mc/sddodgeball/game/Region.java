@@ -0,0 +1,77 @@
+package com.github.liamdev06.mc.sddodgeball.game;
+
+import org.bukkit.Location;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Immutable cuboid of block coordinates. The bounds are calculated once
+ * so checking if a position is inside the region does not create any new objects.
+ *
+ * @param minX The lowest block x coordinate.
+ * @param minY The lowest block y coordinate.
+ * @param minZ The lowest block z coordinate.
+ * @param maxX The highest block x coordinate.
+ * @param maxY The highest block y coordinate.
+ * @param maxZ The highest block z coordinate.
+ */
+public record Region(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+
+    /**
+     * Create a region from the cuboid generated by two locations.
+     *
+     * @param loc1 Position one to create the cuboid.
+     * @param loc2 Position two to create the cuboid.
+     * @return The region between {@param loc1} and {@param loc2}.
+     */
+    public static @NonNull Region fromCorners(@NonNull Location loc1, @NonNull Location loc2) {
+        return new Region(
+                Math.min(loc1.getBlockX(), loc2.getBlockX()),
+                Math.min(loc1.getBlockY(), loc2.getBlockY()),
+                Math.min(loc1.getBlockZ(), loc2.getBlockZ()),
+                Math.max(loc1.getBlockX(), loc2.getBlockX()),
+                Math.max(loc1.getBlockY(), loc2.getBlockY()),
+                Math.max(loc1.getBlockZ(), loc2.getBlockZ())
+        );
+    }
+
+    /**
+     * @param x The block x coordinate.
+     * @param y The block y coordinate.
+     * @param z The block z coordinate.
+     * @return If the block coordinates can be found inside of the region.
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ;
+    }
+
+    /**
+     * @param location The location to check for.
+     * @return If the block of the location can be found inside of the region.
+     */
+    public boolean contains(@NonNull Location location) {
+        return this.contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Get the closest position inside of the region, keeping the rotation of the location.
+     * Coordinates that are outside of the region are moved to the middle of the closest block on the edge.
+     *
+     * @param location The location to clamp.
+     * @return A new location inside of the region, or a copy of the location if it is already inside.
+     */
+    public @NonNull Location clamp(@NonNull Location location) {
+        Location clamped = location.clone();
+        clamped.setX(clampAxis(location.getX(), location.getBlockX(), this.minX, this.maxX, 0.5));
+        clamped.setY(clampAxis(location.getY(), location.getBlockY(), this.minY, this.maxY, 0));
+        clamped.setZ(clampAxis(location.getZ(), location.getBlockZ(), this.minZ, this.maxZ, 0.5));
+        return clamped;
+    }
+
+    private static double clampAxis(double value, int block, int min, int max, double offset) {
+        if (block >= min && block <= max) {
+            return value;
+        }
+
+        return Math.max(min, Math.min(max, block)) + offset;
+    }
+}
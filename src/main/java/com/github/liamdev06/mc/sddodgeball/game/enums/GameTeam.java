@@ -1,11 +1,14 @@
 package com.github.liamdev06.mc.sddodgeball.game.enums;
 
 import com.github.liamdev06.mc.sddodgeball.game.BlockLocationPair;
+import com.github.liamdev06.mc.sddodgeball.game.Region;
 import org.bukkit.ChatColor;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -17,7 +20,7 @@ public class GameTeam {
     private final @NonNull ChatColor chatColor;
     private final @NonNull BlockLocationPair playableTeamArea;
     private final boolean playable;
-    private final @NonNull List<UUID> alivePlayers;
+    private final @NonNull Set<UUID> alivePlayers;
 
     public GameTeam(@NonNull String id, @NonNull String displayName,@NonNull ChatColor chatColor, @NonNull String prefix, boolean playable) {
         this.id = id;
@@ -26,7 +29,7 @@ public class GameTeam {
         this.prefix = prefix;
         this.playableTeamArea = new BlockLocationPair();
         this.playable = playable;
-        this.alivePlayers = new ArrayList<>();
+        this.alivePlayers = new HashSet<>();
     }
 
     public @NonNull String getId() {
@@ -49,19 +52,42 @@ public class GameTeam {
         return this.playableTeamArea;
     }
 
+    /**
+     * @return The precomputed playable area of the team, or null if the area is not fully set.
+     */
+    public @Nullable Region getPlayableRegion() {
+        return this.playableTeamArea.getRegion();
+    }
+
     public boolean isPlayable() {
         return this.playable;
     }
 
-    public @NonNull List<UUID> getAlivePlayers() {
-        return this.alivePlayers;
+    /**
+     * @return A read-only view of the players on the team that are still alive.
+     */
+    public @NonNull Set<UUID> getAlivePlayers() {
+        return Collections.unmodifiableSet(this.alivePlayers);
+    }
+
+    /**
+     * @return The amount of players on the team that are still alive.
+     */
+    public int getAliveCount() {
+        return this.alivePlayers.size();
     }
 
     public void addAlivePlayer(@NonNull UUID uuid) {
         this.alivePlayers.add(uuid);
     }
 
-    public void removeAlivePlayer(@NonNull UUID uuid) {
-        this.alivePlayers.remove(uuid);
+    /**
+     * Remove a player from the alive players of the team.
+     *
+     * @param uuid The UUID of the player.
+     * @return If the player was alive on the team before being removed.
+     */
+    public boolean removeAlivePlayer(@NonNull UUID uuid) {
+        return this.alivePlayers.remove(uuid);
     }
 }
@@ -0,0 +1,136 @@
+package com.github.liamdev06.mc.sddodgeball.leaderboard;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Ranks users by a single score. Scores are kept in a sorted set so an update is O(log n),
+ * and the top entries are kept in an array that is only rebuilt when an update can change it,
+ * so reading a rank is O(1).
+ */
+public class Leaderboard {
+
+    private static final @NonNull Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::uuid);
+
+    private final int size, capacity;
+    private final @NonNull NavigableSet<Entry> ranking;
+    private final @NonNull Map<UUID, Entry> entries;
+    private volatile @NonNull Entry[] top;
+    private volatile @NonNull Map<UUID, Integer> topRanks;
+
+    /**
+     * @param size The amount of ranks to show.
+     * @param capacity The max amount of users to keep track of, the lowest ranked users are dropped above it.
+     */
+    public Leaderboard(int size, int capacity) {
+        this.size = Math.max(1, size);
+        this.capacity = Math.max(this.size, capacity);
+        this.ranking = new TreeSet<>(ORDER);
+        this.entries = new HashMap<>();
+        this.top = new Entry[0];
+        this.topRanks = Map.of();
+    }
+
+    /**
+     * Set the score of a user.
+     *
+     * @param uuid The UUID of the user.
+     * @param score The new score of the user.
+     */
+    public synchronized void update(@NonNull UUID uuid, int score) {
+        Entry previous = this.entries.get(uuid);
+        if (previous != null) {
+            if (previous.score() == score) {
+                return;
+            }
+
+            this.ranking.remove(previous);
+        }
+
+        Entry entry = new Entry(uuid, score);
+        this.ranking.add(entry);
+        this.entries.put(uuid, entry);
+
+        // Drop the lowest ranked user to stay within the capacity
+        boolean droppedFromTop = false;
+        if (this.ranking.size() > this.capacity) {
+            Entry lowest = this.ranking.pollLast();
+            this.entries.remove(lowest.uuid());
+            droppedFromTop = this.topRanks.containsKey(lowest.uuid());
+        }
+
+        // Only rebuild the top when the user was or now is part of it
+        Entry[] currentTop = this.top;
+        boolean wasInTop = droppedFromTop || this.topRanks.containsKey(uuid);
+        boolean isInTop = currentTop.length < this.size || ORDER.compare(entry, currentTop[currentTop.length - 1]) < 0;
+        if (wasInTop || isInTop) {
+            this.rebuildTop();
+        }
+    }
+
+    /**
+     * Set the score of a user only if the user is not ranked yet, such as when loading scores
+     * from storage that may be older than a score already updated while the server is running.
+     *
+     * @param uuid The UUID of the user.
+     * @param score The stored score of the user.
+     */
+    public synchronized void seed(@NonNull UUID uuid, int score) {
+        if (!this.entries.containsKey(uuid)) {
+            this.update(uuid, score);
+        }
+    }
+
+    /**
+     * @param rank The rank to get, starting at 1.
+     * @return The entry at the rank, or null if no user has the rank.
+     */
+    public @Nullable Entry getEntry(int rank) {
+        Entry[] currentTop = this.top;
+        if (rank < 1 || rank > currentTop.length) {
+            return null;
+        }
+
+        return currentTop[rank - 1];
+    }
+
+    /**
+     * @param uuid The UUID of the user.
+     * @return The rank of the user starting at 1, or -1 if the user is not in the top.
+     */
+    public int getRank(@NonNull UUID uuid) {
+        return this.topRanks.getOrDefault(uuid, -1);
+    }
+
+    private void rebuildTop() {
+        Entry[] newTop = new Entry[Math.min(this.size, this.ranking.size())];
+        Map<UUID, Integer> newRanks = new HashMap<>();
+
+        Iterator<Entry> iterator = this.ranking.iterator();
+        for (int i = 0; i < newTop.length; i++) {
+            Entry entry = iterator.next();
+            newTop[i] = entry;
+            newRanks.put(entry.uuid(), i + 1);
+        }
+
+        this.top = newTop;
+        this.topRanks = newRanks;
+    }
+
+    /**
+     * A ranked user.
+     *
+     * @param uuid The UUID of the user.
+     * @param score The score of the user.
+     */
+    public record Entry(@NonNull UUID uuid, int score) {}
+}
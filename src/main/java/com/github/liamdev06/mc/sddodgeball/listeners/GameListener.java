@@ -2,15 +2,18 @@ package com.github.liamdev06.mc.sddodgeball.listeners;
 
 import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import com.github.liamdev06.mc.sddodgeball.api.events.GameStateChangeEvent;
+import com.github.liamdev06.mc.sddodgeball.api.events.TeamEliminatedEvent;
 import com.github.liamdev06.mc.sddodgeball.game.BlockLocationPair;
 import com.github.liamdev06.mc.sddodgeball.game.Game;
 import com.github.liamdev06.mc.sddodgeball.game.GamePlayer;
+import com.github.liamdev06.mc.sddodgeball.game.Region;
 import com.github.liamdev06.mc.sddodgeball.game.enums.GameState;
 import com.github.liamdev06.mc.sddodgeball.game.enums.GameTeam;
-import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
 import com.github.liamdev06.mc.sddodgeball.game.GameHelper;
+import com.github.liamdev06.mc.sddodgeball.settings.GameSettings;
 import com.github.liamdev06.mc.sddodgeball.storage.user.storage.IUserStorage;
 import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
 import com.github.liamdev06.mc.sddodgeball.utility.DefaultSound;
 import com.github.liamdev06.mc.sddodgeball.game.PlayerSpawner;
 import com.github.liamdev06.mc.sddodgeball.utility.SoundHelper;
@@ -51,13 +54,9 @@ import java.util.stream.Collectors;
 public class GameListener implements Listener {
 
     private final @NonNull DodgeballPlugin plugin;
-    private final @NonNull GameFileStorage config;
-    private final @NonNull Map<UUID, Location> lastLocation;
 
     public GameListener(@NonNull DodgeballPlugin plugin) {
         this.plugin = plugin;
-        this.config = plugin.getPluginConfig();
-        this.lastLocation = new HashMap<>();
     }
 
     @EventHandler
@@ -100,14 +99,15 @@ public class GameListener implements Listener {
             }
 
             // Check if we can start the countdown timer
+            GameSettings settings = this.plugin.getSettings().game();
             int playersSize = game.getPlayers().size();
-            if (gameState == GameState.PRE_WAITING && playersSize >= this.config.getInt("game.players-to-start-timer")) {
+            if (gameState == GameState.PRE_WAITING && playersSize >= settings.playersToStartTimer()) {
                 game.setDelayedGameState(GameState.WAITING, 2);
             }
 
             // The player joined the game
             if (gameState.isWaiting()) {
-                if (playersSize >= this.config.getInt("game.max-players")) {
+                if (playersSize >= settings.maxPlayers()) {
                     game.setDelayedGameState(GameState.ACTIVE, 2);
                 }
 
@@ -126,7 +126,7 @@ public class GameListener implements Listener {
         };
 
         GamePlayer gamePlayer = game.getGamePlayer(player);
-        gamePlayer.getTeam().removeAlivePlayer(player.getUniqueId());
+        game.removeAlivePlayer(gamePlayer);
 
         GameState gameState = game.getGameState();
         for (GamePlayer targetGamePlayer : game.getPlayers()) {
@@ -141,16 +141,26 @@ public class GameListener implements Listener {
         }
 
         game.removePlayer(player);
+    }
 
-        // Check if one team has no alive players left
-        if (gameState == GameState.ACTIVE) {
-            for (GameTeam team : game.getPlayableTeams()) {
-                if (team.getAlivePlayers().size() == 0) {
-                    game.setDelayedGameState(GameState.END, 3);
-                    break;
-                }
+    @EventHandler
+    public void onTeamEliminated(TeamEliminatedEvent event) {
+        final Game game = event.getAffectedGame();
+        final GameTeam eliminatedTeam = event.getEliminatedTeam();
+
+        // Only the first team eliminated in an active game decides the winner
+        if (game.getGameState() != GameState.ACTIVE || game.getWinningTeam() != null) {
+            return;
+        }
+
+        for (GameTeam team : game.getPlayableTeams()) {
+            if (team != eliminatedTeam && team.getAliveCount() > 0) {
+                game.setWinningTeam(team);
+                break;
             }
         }
+
+        game.setDelayedGameState(GameState.END, 3);
     }
 
     @EventHandler
@@ -171,14 +181,8 @@ public class GameListener implements Listener {
     public void onProjectileLaunch(ProjectileLaunchEvent event) {
         if (event.getEntity() instanceof Snowball snowball) {
             if (snowball.getShooter() instanceof Player player) {
-                // Get the game
-                Game game = GameHelper.getGameFromPlayer(player);
-                if (game == null) {
-                    return;
-                }
-
                 // Get the game player
-                GamePlayer gamePlayer = game.getGamePlayer(player);
+                GamePlayer gamePlayer = GameHelper.getGamePlayerFromPlayer(player);
                 if (gamePlayer == null) {
                     return;
                 }
@@ -243,23 +247,18 @@ public class GameListener implements Listener {
                 this.incrementKill(shooter);
 
                 // Coins
-                int coins = this.config.getInt("game.coins-on-kill");
+                int coins = this.plugin.getSettings().game().coinsOnKill();
                 this.incrementCoins(shooter, coins);
                 LibActionBar.sendActionBar(shooter, "&6+" + coins + " coins");
 
-                // Check if there is any player left on the hit's team
+                // Remove the hit player from their team, ending the game if they were the last one alive
                 GamePlayer gamePlayerHit = game.getGamePlayer(hit);
                 if (gamePlayerHit == null) {
                     return;
                 }
-                GameTeam hitTeam = gamePlayerHit.getTeam();
-                hitTeam.removeAlivePlayer(gamePlayerHit.getUuid());
+                game.removeAlivePlayer(gamePlayerHit);
                 hit.setGameMode(GameMode.SPECTATOR);
-                gamePlayerHit.setTeamId("spectator");
-
-                if (hitTeam.getAlivePlayers().size() == 0) {
-                    game.setDelayedGameState(GameState.END, 3);
-                }
+                gamePlayerHit.setTeam(game.getTeamById("spectator"));
             }
         }
     }
@@ -285,7 +284,9 @@ public class GameListener implements Listener {
         User user = userStorage.getCachedUser(player.getUniqueId());
 
         if (user != null) {
-            user.setCoins(user.getCoins() + coins);
+            user.addCoins(coins);
+            this.plugin.getLeaderboardManager().update(user, UserStat.COINS);
+            this.plugin.invalidatePlaceholders(user.getUuid());
         }
     }
 
@@ -299,7 +300,9 @@ public class GameListener implements Listener {
         User user = userStorage.getCachedUser(player.getUniqueId());
 
         if (user != null) {
-            user.setLifetimeKills(user.getLifetimeKills() + 1);
+            user.incrementLifetimeKills();
+            this.plugin.getLeaderboardManager().update(user, UserStat.LIFETIME_KILLS);
+            this.plugin.invalidatePlaceholders(user.getUuid());
         }
     }
 
@@ -313,27 +316,20 @@ public class GameListener implements Listener {
         User user = userStorage.getCachedUser(player.getUniqueId());
 
         if (user != null) {
-            user.setLifetimeDeaths(user.getLifetimeDeaths() + 1);
+            user.incrementLifetimeDeaths();
+            this.plugin.getLeaderboardManager().update(user, UserStat.LIFETIME_DEATHS);
+            this.plugin.invalidatePlaceholders(user.getUuid());
         }
     }
 
     private void callEndActions(@NonNull Game game) {
-        GameTeam winningTeam = null;
-
-        for (GameTeam target : game.getPlayableTeams()) {
-            int size = target.getAlivePlayers().size();
-
-            if (size > 0) {
-                winningTeam = target;
-            }
-        }
-
+        GameTeam winningTeam = game.getWinningTeam();
         if (winningTeam == null) {
             return;
         }
 
         // Send sound and title, and clear inventory
-        List<GamePlayer> players = game.getPlayers();
+        List<GamePlayer> players = new ArrayList<>(game.getPlayers());
         for (GamePlayer gamePlayer : players) {
             Player player = gamePlayer.toPlayer();
             if (player == null) {
@@ -359,7 +355,7 @@ public class GameListener implements Listener {
 
         // Send configuration commands
         ConsoleCommandSender sender = Bukkit.getConsoleSender();
-        for (String command : this.config.getStringList("game.victory.commands")) {
+        for (String command : this.plugin.getSettings().game().victoryCommands()) {
             Bukkit.dispatchCommand(sender, command.replace("/", ""));
         }
 
@@ -375,7 +371,7 @@ public class GameListener implements Listener {
                     continue;
                 }
 
-                Location location = this.plugin.getLobbyConfig().getLocation("environment.lobby", false);
+                Location location = this.plugin.getSettings().lobby().spawn();
                 if (location == null) {
                     player.kickPlayer("Game Over");
                 } else {
@@ -422,8 +418,8 @@ public class GameListener implements Listener {
     }
 
     private void callActiveActions(@NonNull Game game) {
-        // Put players into teams
-        final List<GamePlayer> players = game.getPlayers();
+        // Put players into teams, shuffling a copy in join order
+        final List<GamePlayer> players = new ArrayList<>(game.getPlayers());
         int size = players.size();
 
         // Calculate the starting index for each team
@@ -438,11 +434,11 @@ public class GameListener implements Listener {
         for (int i = 0; i < players.size(); i++) {
             if (i % 2 == 0) {
                 GamePlayer player = players.get(teamOneIndex++);
-                player.setTeamId(teamOne.getId());
+                player.setTeam(teamOne);
                 teamOne.addAlivePlayer(player.getUuid());
             } else {
                 GamePlayer player = players.get(teamTwoIndex++);
-                player.setTeamId(teamTwo.getId());
+                player.setTeam(teamTwo);
                 teamTwo.addAlivePlayer(player.getUuid());
             }
         }
@@ -468,10 +464,10 @@ public class GameListener implements Listener {
         }
 
         // Visual effects to the players
-        ItemStack snowball = new ItemStack(Material.SNOWBALL, this.config.getInt("game.snowballs-start-amount"));
+        ItemStack snowball = new ItemStack(Material.SNOWBALL, this.plugin.getSettings().game().snowballsStartAmount());
 
-        int teamOneSize = teamOne.getAlivePlayers().size();
-        int teamTwoSize = teamTwo.getAlivePlayers().size();
+        int teamOneSize = teamOne.getAliveCount();
+        int teamTwoSize = teamTwo.getAliveCount();
         PotionEffect speedEffect = new PotionEffect(PotionEffectType.SPEED, Integer.MAX_VALUE, 0);
 
         for (GamePlayer gamePlayer : players) {
@@ -481,10 +477,10 @@ public class GameListener implements Listener {
             }
 
             // Team one is 1 less player than team two, give them a small speed boost as an extra perk
-            String gameTeamId = gamePlayer.getTeam().getId();
-            if (teamOneSize < teamTwoSize && gameTeamId.equals(teamOne.getId())) {
+            GameTeam gameTeam = gamePlayer.getTeam();
+            if (teamOneSize < teamTwoSize && gameTeam == teamOne) {
                 player.addPotionEffect(speedEffect);
-            } else if (teamTwoSize > teamOneSize && gameTeamId.equals(teamTwo.getId())) {
+            } else if (teamTwoSize > teamOneSize && gameTeam == teamTwo) {
                 // Team two is 1 less player than team one, give them a small speed boost as an extra perk
                 player.addPotionEffect(speedEffect);
             }
@@ -502,36 +498,34 @@ public class GameListener implements Listener {
 
     @EventHandler
     public void onPlayerMove(PlayerMoveEvent event) {
-        final Player player = event.getPlayer();
-        final UUID uuid = player.getUniqueId();
+        final Location from = event.getFrom();
+        final Location to = event.getTo();
 
-        // Get the game
-        Game game = GameHelper.getGameFromPlayer(player);
-        if (game == null) {
+        // Only check the playable area when the player moved to a new block
+        if (to == null || (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY() && from.getBlockZ() == to.getBlockZ())) {
             return;
         }
 
         // Get the game player
-        GamePlayer gamePlayer = game.getGamePlayer(player);
+        GamePlayer gamePlayer = GameHelper.getGamePlayerFromPlayer(event.getPlayer());
         if (gamePlayer == null) {
             return;
         }
 
         // Check if the player is trying to leave their team side
-        GameTeam team = gamePlayer.getTeam();
-        BlockLocationPair playableArea = team.getPlayableTeamArea();
-        Location location = player.getLocation();
-        Location positionOne = playableArea.getPositionOne();
-        Location positionTwo = playableArea.getPositionTwo();
-
-        // Player left the cuboid
-        if (positionOne != null && positionTwo != null && !this.isInsideCuboid(location, positionOne, positionTwo)) {
-            player.teleport(this.lastLocation.get(uuid));
+        Region playableRegion = gamePlayer.getTeam().getPlayableRegion();
+
+        if (playableRegion == null || playableRegion.contains(to.getBlockX(), to.getBlockY(), to.getBlockZ())) {
             return;
         }
 
-        // Store last location
-        this.lastLocation.put(uuid, location);
+        // Player left the cuboid, move them back to where they came from. If they were already outside of it,
+        // such as when they spawned outside of it, move them to the closest position inside of it instead
+        if (playableRegion.contains(from.getBlockX(), from.getBlockY(), from.getBlockZ())) {
+            event.setTo(from);
+        } else {
+            event.setTo(playableRegion.clamp(to));
+        }
     }
 
     @EventHandler
@@ -555,25 +549,6 @@ public class GameListener implements Listener {
         }
     }
 
-    /**
-     * Checks if the base location can be found inside of the cuboid
-     * generated by loc1 and loc2.
-     *
-     * @param base The base location, the location that controls the outcome of the boolean.
-     * @param loc1 Position one to create the cuboid.
-     * @param loc2 Position two to create the cuboid.
-     * @return If {@param base} can be found inside of the cuboid created by {@param loc1} and {@param loc2}
-     */
-    private boolean isInsideCuboid(@NonNull Location base, @NonNull Location loc1, @NonNull Location loc2) {
-        int x1 = Math.min(loc1.getBlockX(), loc2.getBlockX());
-        int y1 = Math.min(loc1.getBlockY(), loc2.getBlockY());
-        int z1 = Math.min(loc1.getBlockZ(), loc2.getBlockZ());
-        int x2 = Math.max(loc1.getBlockX(), loc2.getBlockX());
-        int y2 = Math.max(loc1.getBlockY(), loc2.getBlockY());
-        int z2 = Math.max(loc1.getBlockZ(), loc2.getBlockZ());
-        return (base.getBlockX() >= x1 && base.getBlockX() <= x2 && base.getBlockY() >= y1 && base.getBlockY() <= y2 && base.getBlockZ() >= z1 && base.getBlockZ() <= z2);
-    }
-
     /**
      * @param player An online player to check for.
      * @return If the player is in a game world.
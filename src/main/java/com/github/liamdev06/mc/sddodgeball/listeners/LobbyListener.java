@@ -2,9 +2,11 @@ package com.github.liamdev06.mc.sddodgeball.listeners;
 
 import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import com.github.liamdev06.mc.sddodgeball.game.Game;
+import com.github.liamdev06.mc.sddodgeball.storage.user.User;
 import com.github.liamdev06.mc.sddodgeball.storage.user.storage.IUserStorage;
 import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
 import com.github.liamdev06.mc.sddodgeball.game.setup.GameSetupHelper;
+import com.github.liamdev06.mc.sddodgeball.settings.LobbySettings;
 import com.github.liamdev06.mc.sddodgeball.utility.PermissionHelper;
 import com.github.liamdev06.mc.sddodgeball.managers.ScoreboardManager;
 import com.github.liamdev06.mc.sddodgeball.utility.autoregistry.AutoRegister;
@@ -15,11 +17,13 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.FoodLevelChangeEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
@@ -27,8 +31,13 @@ import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.weather.WeatherChangeEvent;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.Map;
 import java.util.UUID;
-import java.util.logging.Logger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * All specific listeners for the server lobby.
@@ -36,18 +45,62 @@ import java.util.logging.Logger;
 @AutoRegister(type = AutoRegistry.Type.LISTENER)
 public class LobbyListener implements Listener {
 
-    private static final @NonNull String SETTINGS_PATH = "settings.";
+    private static final int DEFAULT_PRELOAD_TIMEOUT = 5;
+    private static final long UNUSED_PRELOAD_TICKS = 60 * 20L;
 
     private final @NonNull DodgeballPlugin plugin;
     private final @NonNull IUserStorage userManager;
-    private final @NonNull GameFileStorage lobbyConfig;
     private final @NonNull ScoreboardManager scoreboardManager;
+    private final @NonNull Map<UUID, CompletableFuture<User>> pendingLoads;
+    private final int preloadTimeout;
 
     public LobbyListener(@NonNull DodgeballPlugin plugin) {
         this.plugin = plugin;
         this.userManager = plugin.getUserStorage();
-        this.lobbyConfig = plugin.getLobbyConfig();
         this.scoreboardManager = plugin.getScoreboardManager();
+        this.pendingLoads = new ConcurrentHashMap<>();
+
+        GameFileStorage config = plugin.getPluginConfig();
+        this.preloadTimeout = config.contains("user-preload-timeout") ? config.getInt("user-preload-timeout") : DEFAULT_PRELOAD_TIMEOUT;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        // Load the user before the player joins, the loading is started on the main thread like any other storage call
+        final UUID uuid = event.getUniqueId();
+        CompletableFuture<User> future = new CompletableFuture<>();
+        Bukkit.getScheduler().runTask(this.plugin, () -> this.loadUser(uuid).whenComplete((user, exception) -> {
+            if (exception == null) {
+                future.complete(user);
+            } else {
+                future.completeExceptionally(exception);
+            }
+        }));
+
+        // This event is called asynchronously, so waiting here only holds back this player's login
+        try {
+            future.get(this.preloadTimeout, TimeUnit.SECONDS);
+        } catch (TimeoutException exception) {
+            this.plugin.getLogger().warning("The user " + uuid + " was not loaded within " + this.preloadTimeout + " seconds, loading them on join instead.");
+            return;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException exception) {
+            exception.printStackTrace();
+            return;
+        }
+
+        // Unload the user again if the player never ended up joining
+        Bukkit.getScheduler().runTaskLater(this.plugin, () -> {
+            if (Bukkit.getPlayer(uuid) == null && this.userManager.getCachedUser(uuid) != null) {
+                this.userManager.saveUserToStorage(uuid).thenRun(() -> this.userManager.removeUserFromCache(uuid));
+            }
+        }, UNUSED_PRELOAD_TICKS);
     }
 
     @EventHandler
@@ -55,12 +108,10 @@ public class LobbyListener implements Listener {
         final Player player = event.getPlayer();
         final UUID uuid = player.getUniqueId();
 
-        // Create a user if it does not exist
-        this.userManager.getUser(uuid).thenAccept(user -> {
-            if (user == null) {
-                this.userManager.createNewUser(uuid).thenAccept(newUser -> newUser.setLevel(1));
-            }
-        });
+        // Load the user if it was not already loaded before joining, reusing a preload that is still running
+        if (this.userManager.getCachedUser(uuid) == null) {
+            this.loadUser(uuid);
+        }
 
         Bukkit.getScheduler().runTaskLater(this.plugin, () -> {
             // If lobby settings are enabled, apply effects
@@ -80,8 +131,9 @@ public class LobbyListener implements Listener {
         final Player player = event.getPlayer();
         final UUID uuid = player.getUniqueId();
 
-        // Remove scoreboard
+        // Remove scoreboard and placeholder results
         this.scoreboardManager.clearLobbyScoreboard(player);
+        this.plugin.invalidatePlaceholders(uuid);
 
         // If the user is in creation mode, reset everything they created
         if (GameSetupHelper.isInCreationMode(player)) {
@@ -142,14 +194,9 @@ public class LobbyListener implements Listener {
             return;
         }
 
-        String allowHungerPath = SETTINGS_PATH + "allow-hunger";
-        if (this.lobbyConfig.ensureBoolean(allowHungerPath)) {
-            if (!this.lobbyConfig.getBoolean(allowHungerPath)) {
-                // Cancel food level change event
-                event.setCancelled(true);
-            }
-        } else {
-            this.plugin.getLogger().warning("The allow hunger value in lobby.yml at " + allowHungerPath + " is invalid!");
+        if (!this.lobbySettings().allowHunger()) {
+            // Cancel food level change event
+            event.setCancelled(true);
         }
     }
 
@@ -163,14 +210,9 @@ public class LobbyListener implements Listener {
             return;
         }
 
-        String allowHungerPath = SETTINGS_PATH + "allow-item-drop";
-        if (this.lobbyConfig.ensureBoolean(allowHungerPath)) {
-            if (!this.lobbyConfig.getBoolean(allowHungerPath)) {
-                // Cancel the item drop event
-                event.setCancelled(true);
-            }
-        } else {
-            this.plugin.getLogger().warning("The allow item drop value in lobby.yml at " + allowHungerPath + " is invalid!");
+        if (!this.lobbySettings().allowItemDrop()) {
+            // Cancel the item drop event
+            event.setCancelled(true);
         }
     }
 
@@ -185,14 +227,9 @@ public class LobbyListener implements Listener {
             return;
         }
 
-        String allowHungerPath = SETTINGS_PATH + "allow-player-damage";
-        if (this.lobbyConfig.ensureBoolean(allowHungerPath)) {
-            if (!this.lobbyConfig.getBoolean(allowHungerPath)) {
-                // Cancel the damage event
-                event.setCancelled(true);
-            }
-        } else {
-            this.plugin.getLogger().warning("The allow player damage value in lobby.yml at " + allowHungerPath + " is invalid!");
+        if (!this.lobbySettings().allowPlayerDamage()) {
+            // Cancel the damage event
+            event.setCancelled(true);
         }
     }
 
@@ -227,57 +264,38 @@ public class LobbyListener implements Listener {
      * @param player An online player to provide the effects to.
      */
     private void applyJoinEffects(@NonNull Player player) {
-        Logger logger = this.plugin.getLogger();
+        LobbySettings settings = this.lobbySettings();
 
         // Teleport the player to the spawn
-        String lobbyPath = "environment.lobby";
-        Location location = this.lobbyConfig.getLocation(lobbyPath, false);
-        if (location == null) {
-            logger.warning("The location in lobby.yml at " + lobbyPath + " is not set or invalid!");
-        } else {
+        Location location = settings.spawn();
+        if (location != null) {
             player.teleport(location);
         }
 
         // Apply game mode
-        String gameModePath = SETTINGS_PATH + "on-join.set-gamemode";
-        try {
-            GameMode gameMode = GameMode.valueOf(this.lobbyConfig.getString(gameModePath).toUpperCase());
+        GameMode gameMode = settings.joinGameMode();
+        if (gameMode != null) {
             player.setGameMode(gameMode);
-        } catch (IllegalArgumentException exception) {
-            logger.severe("The Game Mode set in lobby.yml at " + gameModePath + " is invalid!");
         }
 
         // Set health
-        String healthPath = SETTINGS_PATH + "on-join.set-health";
-        if (this.lobbyConfig.ensureInt(healthPath)) {
-            int health = this.lobbyConfig.getInt(healthPath);
-
+        Integer health = settings.joinHealth();
+        if (health != null) {
             // Set health scale and health for the player
             player.setHealthScale(health);
             player.setHealth(health);
-        } else {
-            logger.warning("The health value in lobby.yml at " + healthPath + " is not a number!");
         }
 
         // Set food level
-        String foodLevelPath = SETTINGS_PATH + "on-join.set-food";
-        if (this.lobbyConfig.ensureInt(foodLevelPath)) {
-            // Set food level for the player
-            player.setFoodLevel(this.lobbyConfig.getInt(foodLevelPath));
-        } else {
-            logger.warning("The food level value in lobby.yml at " + foodLevelPath + " is not a number!");
+        Integer foodLevel = settings.joinFoodLevel();
+        if (foodLevel != null) {
+            player.setFoodLevel(foodLevel);
         }
 
         // Clear inventory
-        String clearInventoryPath = SETTINGS_PATH + "on-join.clear-inventory";
-        if (this.lobbyConfig.ensureBoolean(clearInventoryPath)) {
-            if (this.lobbyConfig.getBoolean(clearInventoryPath)) {
-                // Clear inventory
-                player.getInventory().clear();
-                player.updateInventory();
-            }
-        } else {
-            logger.warning("The clear inventory value in lobby.yml at " + clearInventoryPath + " is invalid!");
+        if (settings.clearInventory()) {
+            player.getInventory().clear();
+            player.updateInventory();
         }
     }
 
@@ -295,7 +313,7 @@ public class LobbyListener implements Listener {
      * @return If the {@param world} is the same world as the world in the lobby configuration spawn.
      */
     private boolean isLobbyWorld(@NonNull World world) {
-        Location lobbyLocation = this.lobbyConfig.getLocation("environment.lobby", false);
+        Location lobbyLocation = this.lobbySettings().spawn();
         if (lobbyLocation == null) {
             return false;
         }
@@ -308,11 +326,64 @@ public class LobbyListener implements Listener {
      * @return If lobby settings are enabled by the lobby configuration.
      */
     private boolean isLobbySettingsEnabled() {
-        // Check if the "enable settings" is a boolean
-        if (!this.lobbyConfig.ensureBoolean(SETTINGS_PATH + "enable-settings")) {
-            return false;
+        return this.lobbySettings().settingsEnabled();
+    }
+
+    /**
+     * @return The lobby settings of the current settings.
+     */
+    private @NonNull LobbySettings lobbySettings() {
+        return this.plugin.getSettings().lobby();
+    }
+
+    /**
+     * Load or create a user, or get the load that is already running for them.
+     * This makes sure a user is never loaded or created twice at the same time. Must be called on the main thread.
+     *
+     * @param uuid The UUID of the user.
+     * @return A future completed with the user.
+     */
+    private @NonNull CompletableFuture<User> loadUser(@NonNull UUID uuid) {
+        CompletableFuture<User> pending = this.pendingLoads.get(uuid);
+        if (pending != null) {
+            return pending;
+        }
+
+        CompletableFuture<User> future = this.loadOrCreateUser(uuid);
+        if (!future.isDone()) {
+            this.pendingLoads.put(uuid, future);
+            future.whenComplete((user, exception) -> this.pendingLoads.remove(uuid, future));
         }
 
-        return this.lobbyConfig.getBoolean(SETTINGS_PATH + "enable-settings");
+        return future;
+    }
+
+    /**
+     * Load a user from storage, or create a new user if they do not exist yet, and rank them on the leaderboards.
+     *
+     * @param uuid The UUID of the user.
+     * @return A future completed with the loaded or created user.
+     */
+    private @NonNull CompletableFuture<User> loadOrCreateUser(@NonNull UUID uuid) {
+        return this.userManager.getUser(uuid).thenCompose(user -> {
+            if (user != null) {
+                return CompletableFuture.completedFuture(user);
+            }
+
+            return this.userManager.createNewUser(uuid).thenApply(newUser -> {
+                if (newUser != null) {
+                    newUser.setLevel(1);
+                }
+
+                return newUser;
+            });
+        }).thenApply(user -> {
+            // Make sure the leaderboards know the current stats of the user
+            if (user != null) {
+                this.plugin.getLeaderboardManager().updateAll(user);
+            }
+
+            return user;
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.github.liamdev06.mc.sddodgeball.managers;
+
+import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
+import com.github.liamdev06.mc.sddodgeball.game.ArenaDefinition;
+import com.github.liamdev06.mc.sddodgeball.game.Game;
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Loads the registered games at start up without holding back the enable phase. The arenas in
+ * game_data.yml are parsed and checked in parallel off the main thread, and their worlds are then
+ * created on the main thread a few per tick, so every arena comes online as soon as its world is ready.
+ */
+public class ArenaBootstrapper {
+
+    private static final int DEFAULT_WORLDS_PER_TICK = 1;
+
+    private final @NonNull DodgeballPlugin plugin;
+    private final @NonNull Deque<ArenaDefinition> queue;
+    private final @NonNull CompletableFuture<Integer> future;
+    private final int worldsPerTick;
+    private BukkitTask task;
+    private int loadedGames;
+
+    public ArenaBootstrapper(@NonNull DodgeballPlugin plugin) {
+        this.plugin = plugin;
+        this.queue = new ArrayDeque<>();
+        this.future = new CompletableFuture<>();
+
+        GameFileStorage config = plugin.getPluginConfig();
+        int worldsPerTick = config.contains("arena-bootstrap.worlds-per-tick") ? config.getInt("arena-bootstrap.worlds-per-tick") : DEFAULT_WORLDS_PER_TICK;
+        this.worldsPerTick = Math.max(1, worldsPerTick);
+    }
+
+    /**
+     * Start loading the registered games.
+     *
+     * @return A future completed on the main thread with the amount of games loaded, once every arena is online.
+     */
+    public @NonNull CompletableFuture<Integer> start() {
+        File file = this.plugin.getGameStore().configurationFile();
+
+        Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> {
+            List<ArenaDefinition> definitions = this.parseArenas(file);
+            Bukkit.getScheduler().runTask(this.plugin, () -> {
+                this.queue.addAll(definitions);
+                this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this::createNextGames, 0, 1);
+            });
+        });
+
+        return this.future;
+    }
+
+    /**
+     * Read game_data.yml on its own and parse every arena in parallel. Arenas that are invalid are logged and left out.
+     *
+     * @param file The game_data.yml file.
+     * @return The valid arenas.
+     */
+    private @NonNull List<ArenaDefinition> parseArenas(@NonNull File file) {
+        Logger logger = this.plugin.getLogger();
+        YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.load(file);
+        } catch (IOException | InvalidConfigurationException exception) {
+            logger.severe("The game_data.yml file could not be read! Games could not be loaded in.");
+            exception.printStackTrace();
+            return new ArrayList<>();
+        }
+
+        ConfigurationSection gamesSection = configuration.getConfigurationSection("registeredGames");
+        if (gamesSection == null) {
+            logger.warning("The game_data.yml file is missing the 'registeredGames' section! Games could not be loaded in.");
+            return new ArrayList<>();
+        }
+
+        // The section is only read from here on, so the arenas can safely be parsed at the same time
+        return new ArrayList<>(gamesSection.getKeys(false))
+                .parallelStream()
+                .map(gameId -> {
+                    try {
+                        return ArenaDefinition.parse(gameId, gamesSection);
+                    } catch (IllegalArgumentException exception) {
+                        logger.severe(exception.getMessage());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Create the worlds and games of the next arenas in the queue, and finish once the queue is empty.
+     */
+    private void createNextGames() {
+        for (int i = 0; i < this.worldsPerTick && !this.queue.isEmpty(); i++) {
+            Game game = this.plugin.createGame(this.queue.poll());
+            if (game != null) {
+                this.plugin.addGame(game);
+                this.loadedGames++;
+            }
+        }
+
+        if (this.queue.isEmpty()) {
+            this.task.cancel();
+            this.future.complete(this.loadedGames);
+        }
+    }
+}
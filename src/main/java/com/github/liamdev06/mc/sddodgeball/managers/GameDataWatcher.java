@@ -0,0 +1,276 @@
+package com.github.liamdev06.mc.sddodgeball.managers;
+
+import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
+import com.github.liamdev06.mc.sddodgeball.game.Game;
+import com.github.liamdev06.mc.sddodgeball.game.enums.GameState;
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Watches game_data.yml for changes made while the server is running, and reloads only the
+ * games whose 'registeredGames.&lt;id&gt;' section changed. Idle games are swapped out straight away,
+ * while games with players in them are swapped out once they are idle again.
+ */
+public class GameDataWatcher {
+
+    private static final @NonNull String FILE_NAME = "game_data.yml";
+    private static final @NonNull String GAMES_PATH = "registeredGames";
+    private static final long SETTLE_MILLIS = 500;
+    private static final long DEFERRED_CHECK_TICKS = 5 * 20L;
+
+    private final @NonNull DodgeballPlugin plugin;
+    private final @NonNull Map<String, String> fingerprints;
+    private final @NonNull Map<String, ConfigurationSection> deferredGames;
+    private WatchService watchService;
+    private Thread thread;
+    private BukkitTask deferredTask;
+
+    public GameDataWatcher(@NonNull DodgeballPlugin plugin) {
+        this.plugin = plugin;
+        this.fingerprints = new HashMap<>();
+        this.deferredGames = new LinkedHashMap<>();
+    }
+
+    /**
+     * Start watching game_data.yml, taking the games currently in memory as the last seen state of the file.
+     */
+    public void start() {
+        synchronized (this.fingerprints) {
+            this.fingerprints.putAll(fingerprint(this.plugin.getGameStore().getSection(GAMES_PATH)));
+        }
+
+        Path folder = this.plugin.getDataFolder().toPath();
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            folder.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException exception) {
+            this.plugin.getLogger().warning("Could not watch " + FILE_NAME + " for changes, games will only be loaded on start up.");
+            exception.printStackTrace();
+            return;
+        }
+
+        this.thread = new Thread(this::watch, "Dodgeball Game Data Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        this.deferredTask = Bukkit.getScheduler().runTaskTimer(this.plugin, this::applyDeferredGames, DEFERRED_CHECK_TICKS, DEFERRED_CHECK_TICKS);
+    }
+
+    /**
+     * Take the games as the plugin itself just saved them to game_data.yml as the last seen state of the file,
+     * so the plugin's own writes are not reloaded as changes. Must be called on the main thread right after saving.
+     */
+    public void markSaved() {
+        Map<String, String> savedFingerprints = fingerprint(this.plugin.getGameStore().getSection(GAMES_PATH));
+        synchronized (this.fingerprints) {
+            this.fingerprints.clear();
+            this.fingerprints.putAll(savedFingerprints);
+        }
+
+        // Deferred changes that match what was saved have nothing left to apply
+        this.deferredGames.entrySet().removeIf(entry -> Objects.equals(savedFingerprints.get(entry.getKey()),
+                entry.getValue() == null ? null : entry.getValue().getValues(true).toString()));
+    }
+
+    /**
+     * Stop watching game_data.yml. Changes to games that are still deferred are dropped.
+     */
+    public void stop() {
+        if (this.deferredTask != null) {
+            this.deferredTask.cancel();
+        }
+
+        if (this.watchService != null) {
+            try {
+                this.watchService.close();
+            } catch (IOException exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Wait for changes to the plugin data folder until the watch service is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = this.watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path path && path.getFileName().toString().equals(FILE_NAME)) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+
+                if (!changed) {
+                    continue;
+                }
+
+                // Editors often write a file in several steps, so wait for the writes to settle before reading it
+                Thread.sleep(SETTLE_MILLIS);
+                WatchKey settledKey;
+                while ((settledKey = this.watchService.poll()) != null) {
+                    settledKey.pollEvents();
+                    settledKey.reset();
+                }
+
+                this.readChanges();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException exception) {
+            // The watcher was stopped
+        }
+    }
+
+    /**
+     * Read game_data.yml and hand the games whose section changed since the last read to the main thread.
+     */
+    private void readChanges() {
+        File file = new File(this.plugin.getDataFolder(), FILE_NAME);
+        YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.load(file);
+        } catch (IOException | InvalidConfigurationException exception) {
+            this.plugin.getLogger().warning("The changes to " + FILE_NAME + " could not be read, the games were not reloaded: " + exception.getMessage());
+            return;
+        }
+
+        // Compare every game section with how it looked at the last read
+        ConfigurationSection gamesSection = configuration.getConfigurationSection(GAMES_PATH);
+        Map<String, String> newFingerprints = fingerprint(gamesSection);
+        Set<String> changedGames;
+        synchronized (this.fingerprints) {
+            changedGames = new HashSet<>(this.fingerprints.keySet());
+            changedGames.addAll(newFingerprints.keySet());
+            changedGames.removeIf(gameId -> newFingerprints.get(gameId) != null && newFingerprints.get(gameId).equals(this.fingerprints.get(gameId)));
+
+            this.fingerprints.clear();
+            this.fingerprints.putAll(newFingerprints);
+        }
+
+        if (changedGames.isEmpty()) {
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(this.plugin, () -> {
+            for (String gameId : changedGames) {
+                ConfigurationSection section = gamesSection == null ? null : gamesSection.getConfigurationSection(gameId);
+                this.applyChange(gameId, section);
+            }
+        });
+    }
+
+    /**
+     * Swap out a game for its changed section, or defer it if the game is in use.
+     *
+     * @param gameId The id of the changed game.
+     * @param section The new section of the game, or null if it was removed from the file.
+     */
+    private void applyChange(@NonNull String gameId, @Nullable ConfigurationSection section) {
+        Logger logger = this.plugin.getLogger();
+        Game game = this.plugin.getGameById(gameId);
+        if (game != null && isInUse(game)) {
+            this.deferredGames.put(gameId, section);
+            logger.info("The game " + gameId + " changed in " + FILE_NAME + " and will be reloaded once it is no longer in use.");
+            return;
+        }
+
+        this.deferredGames.remove(gameId);
+        GameFileStorage gameStore = this.plugin.getGameStore();
+
+        // The game was removed from the file
+        if (section == null) {
+            if (game != null) {
+                this.plugin.unregisterGame(gameId);
+                logger.info("The game " + gameId + " was removed from " + FILE_NAME + " and has been unloaded.");
+            }
+
+            gameStore.setCache(GAMES_PATH + "." + gameId, null);
+            return;
+        }
+
+        Game newGame = this.plugin.loadInGame(gameId, section.getParent());
+        if (newGame == null) {
+            logger.warning("The game " + gameId + " changed in " + FILE_NAME + " but is invalid, the loaded game was kept.");
+            return;
+        }
+
+        // Keep the in memory copy of the file in line, since it is written back when the server stops
+        gameStore.setCache(GAMES_PATH + "." + gameId, section);
+        this.plugin.unregisterGame(gameId);
+        this.plugin.addGame(newGame);
+        logger.info("The game " + gameId + " was reloaded from " + FILE_NAME + ".");
+    }
+
+    /**
+     * Swap out the deferred games that are no longer in use.
+     */
+    private void applyDeferredGames() {
+        Iterator<Map.Entry<String, ConfigurationSection>> iterator = this.deferredGames.entrySet().iterator();
+        Map<String, ConfigurationSection> ready = new LinkedHashMap<>();
+
+        while (iterator.hasNext()) {
+            Map.Entry<String, ConfigurationSection> entry = iterator.next();
+            Game game = this.plugin.getGameById(entry.getKey());
+            if (game == null || !isInUse(game)) {
+                ready.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+
+        ready.forEach(this::applyChange);
+    }
+
+    /**
+     * @param game The game to check.
+     * @return If the game has players in it, is being played or is still being set up.
+     */
+    private static boolean isInUse(@NonNull Game game) {
+        GameState gameState = game.getGameState();
+        return !game.getPlayers().isEmpty() || gameState == GameState.ACTIVE || gameState == GameState.END || gameState == GameState.SETUP;
+    }
+
+    /**
+     * @param gamesSection The 'registeredGames' section, or null if the file does not have one.
+     * @return A string for every game that changes whenever any value in the section of the game changes.
+     */
+    private static @NonNull Map<String, String> fingerprint(@Nullable ConfigurationSection gamesSection) {
+        Map<String, String> fingerprints = new HashMap<>();
+        if (gamesSection == null) {
+            return fingerprints;
+        }
+
+        for (String gameId : gamesSection.getKeys(false)) {
+            ConfigurationSection section = gamesSection.getConfigurationSection(gameId);
+            if (section != null) {
+                fingerprints.put(gameId, section.getValues(true).toString());
+            }
+        }
+
+        return fingerprints;
+    }
+}
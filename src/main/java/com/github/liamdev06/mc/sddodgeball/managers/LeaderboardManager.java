@@ -0,0 +1,100 @@
+package com.github.liamdev06.mc.sddodgeball.managers;
+
+import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
+import com.github.liamdev06.mc.sddodgeball.leaderboard.Leaderboard;
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
+import com.github.liamdev06.mc.sddodgeball.storage.user.storage.IUserStorage;
+import org.bukkit.Bukkit;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a leaderboard for every user stat. The leaderboards are seeded from storage
+ * at startup and then kept up to date as stats change, so ranks never have to be queried from storage.
+ */
+public class LeaderboardManager {
+
+    private static final int DEFAULT_SIZE = 10;
+    private static final int CAPACITY_MULTIPLIER = 20;
+
+    private final @NonNull DodgeballPlugin plugin;
+    private final @NonNull Map<UserStat, Leaderboard> leaderboards;
+    private final @NonNull Map<UUID, String> names;
+    private final int size;
+
+    public LeaderboardManager(@NonNull DodgeballPlugin plugin) {
+        this.plugin = plugin;
+        this.leaderboards = new EnumMap<>(UserStat.class);
+        this.names = new ConcurrentHashMap<>();
+
+        GameFileStorage config = plugin.getPluginConfig();
+        this.size = config.contains("leaderboard.size") ? config.getInt("leaderboard.size") : DEFAULT_SIZE;
+        for (UserStat stat : UserStat.values()) {
+            this.leaderboards.put(stat, new Leaderboard(this.size, this.size * CAPACITY_MULTIPLIER));
+        }
+    }
+
+    /**
+     * Load the top users of every stat from storage into the leaderboards. Users that are loaded or
+     * already ranked keep their live score, since the stored one may be older.
+     */
+    public void seed() {
+        IUserStorage userStorage = this.plugin.getUserStorage();
+        for (UserStat stat : UserStat.values()) {
+            Leaderboard leaderboard = this.leaderboards.get(stat);
+
+            userStorage.loadTopStat(stat, this.size * CAPACITY_MULTIPLIER).thenAccept(scores -> {
+                for (Map.Entry<UUID, Integer> entry : scores.entrySet()) {
+                    if (userStorage.getCachedUser(entry.getKey()) == null) {
+                        leaderboard.seed(entry.getKey(), entry.getValue());
+                    }
+                }
+            }).exceptionally(exception -> {
+                this.plugin.getLogger().warning("The " + stat.getPlaceholder() + " leaderboard could not be loaded: " + exception.getMessage());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Update the leaderboard of a stat with the current value of a user.
+     *
+     * @param user The user whose stat changed.
+     * @param stat The stat that changed.
+     */
+    public void update(@NonNull User user, @NonNull UserStat stat) {
+        this.leaderboards.get(stat).update(user.getUuid(), user.getStat(stat));
+    }
+
+    /**
+     * Update every leaderboard with the current values of a user, such as when they are loaded.
+     *
+     * @param user The user to update for.
+     */
+    public void updateAll(@NonNull User user) {
+        for (UserStat stat : UserStat.values()) {
+            this.update(user, stat);
+        }
+    }
+
+    public @NonNull Leaderboard getLeaderboard(@NonNull UserStat stat) {
+        return this.leaderboards.get(stat);
+    }
+
+    /**
+     * @param uuid The UUID of a ranked user.
+     * @return The name of the user, looked up once and then remembered.
+     */
+    public @NonNull String getName(@NonNull UUID uuid) {
+        return this.names.computeIfAbsent(uuid, key -> {
+            String name = Bukkit.getOfflinePlayer(key).getName();
+            return name == null ? key.toString() : name;
+        });
+    }
+}
@@ -1,42 +1,38 @@
 package com.github.liamdev06.mc.sddodgeball.managers;
 
 import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
-import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.game.Game;
+import com.github.liamdev06.mc.sddodgeball.settings.ScoreboardSettings;
 import com.github.liamdev06.mc.sddodgeball.storage.user.User;
 import com.github.liamdev06.mc.sddodgeball.utility.fastboard.FastBoard;
-import com.github.liamdev06.mc.sddodgeball.utility.messaging.LibColor;
+import com.github.liamdev06.mc.sddodgeball.utility.scoreboard.ScoreboardRenderer;
+import com.github.liamdev06.mc.sddodgeball.utility.scoreboard.ScoreboardTemplate;
 import org.bukkit.entity.Player;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.*;
 
 /**
- * Manages the scoreboard in the main lobby.
+ * Manages the scoreboard in the main lobby, and gives access to the compiled
+ * scoreboard templates used by both the lobby and the games.
+ *
+ * @see ScoreboardSettings
  */
 public class ScoreboardManager {
 
-    private static final @NonNull String LOBBY_SCOREBOARD_PATH = "scoreboard.";
-
     private final @NonNull DodgeballPlugin plugin;
-    private final @NonNull GameFileStorage lobbyConfig;
-    private final @NonNull Map<UUID, FastBoard> lobbyScoreboards;
-    private final List<String> lobbyScoreboardLines;
+    private final @NonNull Map<UUID, ScoreboardRenderer> lobbyScoreboards;
 
     public ScoreboardManager(@NonNull DodgeballPlugin plugin) {
         this.plugin = plugin;
-        this.lobbyConfig = plugin.getLobbyConfig();
         this.lobbyScoreboards = new HashMap<>();
-        this.lobbyScoreboardLines = new ArrayList<>();
-
-        // Load in lobby scoreboard lines
-        String scoreboardPath = LOBBY_SCOREBOARD_PATH + "lines";
-        if (!this.lobbyConfig.ensureList(scoreboardPath)) {
-            plugin.getLogger().warning("The scoreboard lines in lobby.yml at " + scoreboardPath + " are not valid!");
-        }
+    }
 
-        for (String line : this.lobbyConfig.getStringList(scoreboardPath)) {
-            this.lobbyScoreboardLines.add(LibColor.colorMessage(line));
-        }
+    /**
+     * @return The compiled scoreboards of the current settings.
+     */
+    private @NonNull ScoreboardSettings settings() {
+        return this.plugin.getSettings().scoreboard();
     }
 
     /**
@@ -50,58 +46,71 @@ public class ScoreboardManager {
         FastBoard scoreboard = new FastBoard(player);
 
         // Set the title
-        String scoreboardTitle = LibColor.colorMessage(this.lobbyConfig.getString(LOBBY_SCOREBOARD_PATH + "title"));
-        scoreboard.updateTitle(scoreboardTitle);
-        this.updateLobbyScoreboard(scoreboard);
+        scoreboard.updateTitle(this.settings().lobbyTitle());
+        ScoreboardRenderer renderer = new ScoreboardRenderer(scoreboard);
+        this.updateLobbyScoreboard(renderer);
 
         // Store the scoreboard with the player
-        this.lobbyScoreboards.putIfAbsent(player.getUniqueId(), scoreboard);
+        this.lobbyScoreboards.putIfAbsent(player.getUniqueId(), renderer);
     }
 
     /**
-     * Update the lobby scoreboard of a provided {@link FastBoard}.
+     * Update the lobby scoreboard of a provided {@link ScoreboardRenderer}.
+     * Only lines whose values changed since the last update are sent.
      *
-     * @param board The board to update for.
+     * @param renderer The renderer of the board to update for.
      */
-    public void updateLobbyScoreboard(@NonNull FastBoard board) {
-        Player player = board.getPlayer();
-        List<String> lines = new ArrayList<>(this.lobbyScoreboardLines);
-
-        for (int i = 0; i < lines.size(); i++) {
-            String content = lines.get(i);
-            content = this.applyReplacements(player, content);
-            lines.set(i, content);
-        }
-
-        board.updateLines(lines);
+    public void updateLobbyScoreboard(@NonNull ScoreboardRenderer renderer) {
+        User user = this.plugin.getUserStorage().getCachedUser(renderer.getBoard().getPlayer().getUniqueId());
+        renderer.render(this.settings().lobbyTemplate(), placeholder -> this.resolvePlaceholder(user, placeholder));
     }
 
     /**
      * Update lobby scoreboards for all cached scoreboards.
      */
     public void updateLobbyScoreboards() {
-        for (FastBoard board : this.lobbyScoreboards.values()) {
-            this.updateLobbyScoreboard(board);
+        for (ScoreboardRenderer renderer : this.lobbyScoreboards.values()) {
+            this.updateLobbyScoreboard(renderer);
         }
     }
 
     /**
-     * Apply message replacements to an input string.
+     * Resolve the value of a lobby scoreboard placeholder.
      *
-     * @param player An online player to get data values from.
-     * @param input The input string to perform replacements in.
-     * @return The formatted replaced string.
+     * @param user The user to get data values from, can be null if the user is not loaded yet.
+     * @param placeholder The placeholder name.
+     * @return The value of the placeholder, or null if it should not be replaced.
      */
-    private String applyReplacements(@NonNull Player player, @NonNull String input) {
-        User user = this.plugin.getUserStorage().getCachedUser(player.getUniqueId());
+    private Object resolvePlaceholder(User user, @NonNull String placeholder) {
         if (user == null) {
-            return input;
+            return null;
         }
 
-        return input.replace("{level}", String.valueOf(user.getLevel()))
-                .replace("{coins}", String.valueOf(user.getCoins()))
-                .replace("{lifetime_kills}", String.valueOf(user.getLifetimeKills()))
-                .replace("{lifetime_deaths}", String.valueOf(user.getLifetimeDeaths()));
+        return switch (placeholder) {
+            case "level" -> user.getLevel();
+            case "coins" -> user.getCoins();
+            case "lifetime_kills" -> user.getLifetimeKills();
+            case "lifetime_deaths" -> user.getLifetimeDeaths();
+            default -> null;
+        };
+    }
+
+    /**
+     * Show the titles of the current settings on every lobby and game scoreboard. The lines are
+     * rendered again on the next update, since the renderers notice the templates were swapped.
+     */
+    public void updateTitles() {
+        ScoreboardSettings settings = this.settings();
+        for (ScoreboardRenderer renderer : this.lobbyScoreboards.values()) {
+            FastBoard board = renderer.getBoard();
+            if (!board.isDeleted()) {
+                board.updateTitle(settings.lobbyTitle());
+            }
+        }
+
+        for (Game game : this.plugin.getGames().values()) {
+            game.updateScoreboardTitle(settings.gameTitle());
+        }
     }
 
     /**
@@ -112,7 +121,7 @@ public class ScoreboardManager {
     public void clearLobbyScoreboard(@NonNull Player player) {
         UUID uuid = player.getUniqueId();
         if (this.lobbyScoreboards.containsKey(uuid)) {
-            FastBoard scoreboard = this.lobbyScoreboards.get(uuid);
+            FastBoard scoreboard = this.lobbyScoreboards.get(uuid).getBoard();
 
             if (!scoreboard.isDeleted()) {
                 scoreboard.delete();
@@ -122,15 +131,31 @@ public class ScoreboardManager {
         }
     }
 
+    /**
+     * @return The colorized scoreboard title used in games.
+     */
+    public @NonNull String getGameTitle() {
+        return this.settings().gameTitle();
+    }
+
+    /**
+     * @return The compiled scoreboard lines used while a game is waiting.
+     */
+    public @NonNull ScoreboardTemplate getWaitingTemplate() {
+        return this.settings().waitingTemplate();
+    }
+
+    /**
+     * @return The compiled scoreboard lines used while a game is being played.
+     */
+    public @NonNull ScoreboardTemplate getGameTemplate() {
+        return this.settings().gameTemplate();
+    }
+
     /**
      * @return If the lobby scoreboard is enabled in the lobby confiruation.
      */
     public boolean isLobbyScoreboardEnabled() {
-        // Check if the "enable scoreboard" is a boolean
-        if (!this.lobbyConfig.ensureBoolean(LOBBY_SCOREBOARD_PATH + "enable-scoreboard")) {
-            return false;
-        }
-
-        return this.lobbyConfig.getBoolean(LOBBY_SCOREBOARD_PATH + "enable-scoreboard");
+        return this.settings().lobbyEnabled();
     }
 }
@@ -0,0 +1,72 @@
+package com.github.liamdev06.mc.sddodgeball.settings;
+
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The game settings found in the 'game' section of config.yml.
+ *
+ * @param maxPlayers The amount of players that starts the game straight away.
+ * @param playersToStartTimer The amount of players required for the countdown timer to start.
+ * @param waitingTimer The countdown timer, in seconds.
+ * @param snowballsStartAmount The amount of snowballs each player starts with.
+ * @param coinsOnKill The amount of coins a player receives when hitting another player.
+ * @param victoryCommands The commands performed by the console on victory.
+ */
+public record GameSettings(int maxPlayers, int playersToStartTimer, int waitingTimer, int snowballsStartAmount,
+                           int coinsOnKill, @NonNull List<String> victoryCommands) {
+
+    private static final @NonNull String PATH = "game.";
+
+    /**
+     * Check the game settings in a configuration before they are used.
+     *
+     * @param config The plugin configuration.
+     * @return The problems found in the configuration, empty if the game settings are valid.
+     */
+    public static @NonNull List<String> validate(@NonNull GameFileStorage config) {
+        List<String> problems = new ArrayList<>();
+        for (String key : new String[] { "max-players", "players-to-start-timer", "waiting-timer", "snowballs-start-amount", "coins-on-kill" }) {
+            if (!config.ensureInt(PATH + key)) {
+                problems.add("config.yml: " + PATH + key + " is not a number");
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            return problems;
+        }
+
+        int playersToStartTimer = config.getInt(PATH + "players-to-start-timer");
+        if (playersToStartTimer < 1) {
+            problems.add("config.yml: " + PATH + "players-to-start-timer must be at least 1");
+        }
+
+        if (config.getInt(PATH + "max-players") < playersToStartTimer) {
+            problems.add("config.yml: " + PATH + "max-players must be at least " + PATH + "players-to-start-timer");
+        }
+
+        if (config.getInt(PATH + "waiting-timer") < 0) {
+            problems.add("config.yml: " + PATH + "waiting-timer cannot be negative");
+        }
+
+        return problems;
+    }
+
+    /**
+     * @param config The plugin configuration.
+     * @return The game settings read from the configuration.
+     */
+    public static @NonNull GameSettings load(@NonNull GameFileStorage config) {
+        return new GameSettings(
+                config.getInt(PATH + "max-players"),
+                config.getInt(PATH + "players-to-start-timer"),
+                config.getInt(PATH + "waiting-timer"),
+                config.getInt(PATH + "snowballs-start-amount"),
+                config.getInt(PATH + "coins-on-kill"),
+                config.getStringList(PATH + "victory-commands").stream().filter(command -> !command.isBlank()).toList()
+        );
+    }
+}
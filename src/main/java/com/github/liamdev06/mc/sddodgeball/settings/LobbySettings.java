@@ -0,0 +1,86 @@
+package com.github.liamdev06.mc.sddodgeball.settings;
+
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.logging.Logger;
+
+/**
+ * The server lobby settings found in lobby.yml.
+ *
+ * @param spawnLocation The lobby spawn as written in the configuration.
+ * @param spawn The parsed lobby spawn, or null if it is not set or its world is not loaded.
+ * @param settingsEnabled If the lobby settings should be controlled by the plugin.
+ * @param joinGameMode The game mode to apply on join, or null if it is invalid.
+ * @param joinHealth The health to apply on join, or null if it is invalid.
+ * @param joinFoodLevel The food level to apply on join, or null if it is invalid.
+ * @param clearInventory If the inventory should be cleared on join.
+ * @param allowHunger If players can get hungry in the lobby.
+ * @param allowItemDrop If players can drop items in the lobby.
+ * @param allowPlayerDamage If players can take damage in the lobby.
+ */
+public record LobbySettings(@NonNull String spawnLocation, @Nullable Location spawn, boolean settingsEnabled,
+                            @Nullable GameMode joinGameMode, @Nullable Integer joinHealth, @Nullable Integer joinFoodLevel,
+                            boolean clearInventory, boolean allowHunger, boolean allowItemDrop, boolean allowPlayerDamage) {
+
+    private static final @NonNull String SETTINGS_PATH = "settings.";
+
+    /**
+     * @param logger The logger to warn in about invalid values.
+     * @param lobbyConfig The lobby configuration.
+     * @return The lobby settings read from the configuration.
+     */
+    public static @NonNull LobbySettings load(@NonNull Logger logger, @NonNull GameFileStorage lobbyConfig) {
+        String spawnLocation = lobbyConfig.getString("environment.lobby");
+        Location spawn = lobbyConfig.getLocation("environment.lobby", false);
+        if (spawn == null) {
+            logger.warning("The location in lobby.yml at environment.lobby is not set or invalid!");
+        }
+
+        // On join values
+        GameMode gameMode = null;
+        String gameModePath = SETTINGS_PATH + "on-join.set-gamemode";
+        try {
+            gameMode = GameMode.valueOf(lobbyConfig.getString(gameModePath).toUpperCase());
+        } catch (IllegalArgumentException exception) {
+            logger.severe("The Game Mode set in lobby.yml at " + gameModePath + " is invalid!");
+        }
+
+        Integer health = readInt(logger, lobbyConfig, SETTINGS_PATH + "on-join.set-health", "health value");
+        Integer foodLevel = readInt(logger, lobbyConfig, SETTINGS_PATH + "on-join.set-food", "food level value");
+
+        return new LobbySettings(
+                spawnLocation,
+                spawn,
+                lobbyConfig.ensureBoolean(SETTINGS_PATH + "enable-settings") && lobbyConfig.getBoolean(SETTINGS_PATH + "enable-settings"),
+                gameMode,
+                health,
+                foodLevel,
+                readBoolean(logger, lobbyConfig, SETTINGS_PATH + "on-join.clear-inventory", "clear inventory value", false),
+                readBoolean(logger, lobbyConfig, SETTINGS_PATH + "allow-hunger", "allow hunger value", true),
+                readBoolean(logger, lobbyConfig, SETTINGS_PATH + "allow-item-drop", "allow item drop value", true),
+                readBoolean(logger, lobbyConfig, SETTINGS_PATH + "allow-player-damage", "allow player damage value", true)
+        );
+    }
+
+    private static @Nullable Integer readInt(@NonNull Logger logger, @NonNull GameFileStorage lobbyConfig, @NonNull String path, @NonNull String name) {
+        if (!lobbyConfig.ensureInt(path)) {
+            logger.warning("The " + name + " in lobby.yml at " + path + " is not a number!");
+            return null;
+        }
+
+        return lobbyConfig.getInt(path);
+    }
+
+    private static boolean readBoolean(@NonNull Logger logger, @NonNull GameFileStorage lobbyConfig, @NonNull String path, @NonNull String name, boolean fallback) {
+        if (!lobbyConfig.ensureBoolean(path)) {
+            logger.warning("The " + name + " in lobby.yml at " + path + " is invalid!");
+            return fallback;
+        }
+
+        return lobbyConfig.getBoolean(path);
+    }
+}
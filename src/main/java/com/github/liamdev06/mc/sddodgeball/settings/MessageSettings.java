@@ -0,0 +1,46 @@
+package com.github.liamdev06.mc.sddodgeball.settings;
+
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MessageTemplate;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every message and message list in messages.yml, compiled into {@link MessageTemplate}s.
+ *
+ * @param fileName The name of the messages file, used when logging missing messages.
+ * @param messages The compiled messages by their key.
+ * @param messageLists The compiled message lists by their key.
+ */
+public record MessageSettings(@NonNull String fileName, @NonNull Map<String, MessageTemplate> messages,
+                              @NonNull Map<String, List<MessageTemplate>> messageLists) {
+
+    /**
+     * @param messagesConfig The messages configuration.
+     * @return The messages compiled from the configuration.
+     */
+    public static @NonNull MessageSettings load(@NonNull FileConfiguration messagesConfig) {
+        Map<String, MessageTemplate> messages = new HashMap<>();
+        Map<String, List<MessageTemplate>> messageLists = new HashMap<>();
+
+        // Compile every message and message list in the messages configuration
+        for (String key : messagesConfig.getKeys(true)) {
+            if (messagesConfig.isString(key)) {
+                messages.put(key, MessageTemplate.compile(messagesConfig.getString(key, "")));
+            } else if (messagesConfig.isList(key)) {
+                List<MessageTemplate> templates = new ArrayList<>();
+                for (String line : messagesConfig.getStringList(key)) {
+                    templates.add(MessageTemplate.compile(line));
+                }
+
+                messageLists.put(key, List.copyOf(templates));
+            }
+        }
+
+        return new MessageSettings(messagesConfig.getName(), Map.copyOf(messages), Map.copyOf(messageLists));
+    }
+}
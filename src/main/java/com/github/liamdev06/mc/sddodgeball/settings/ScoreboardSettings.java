@@ -0,0 +1,59 @@
+package com.github.liamdev06.mc.sddodgeball.settings;
+
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MessageTemplate;
+import com.github.liamdev06.mc.sddodgeball.utility.scoreboard.ScoreboardTemplate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.logging.Logger;
+
+/**
+ * The compiled scoreboards of the lobby and the games.
+ *
+ * @param lobbyEnabled If the lobby scoreboard is enabled in lobby.yml.
+ * @param lobbyTitle The colorized lobby scoreboard title.
+ * @param lobbyTemplate The compiled lobby scoreboard lines.
+ * @param gameTitle The colorized game scoreboard title.
+ * @param waitingTemplate The compiled scoreboard lines used while a game is waiting.
+ * @param gameTemplate The compiled scoreboard lines used while a game is being played.
+ */
+public record ScoreboardSettings(boolean lobbyEnabled, @NonNull String lobbyTitle, @NonNull ScoreboardTemplate lobbyTemplate,
+                                 @NonNull String gameTitle, @NonNull ScoreboardTemplate waitingTemplate, @NonNull ScoreboardTemplate gameTemplate) {
+
+    private static final @NonNull String LOBBY_SCOREBOARD_PATH = "scoreboard.";
+
+    /**
+     * @param logger The logger to warn in about invalid lines.
+     * @param config The plugin configuration.
+     * @param lobbyConfig The lobby configuration.
+     * @return The scoreboards compiled from the configurations.
+     */
+    public static @NonNull ScoreboardSettings load(@NonNull Logger logger, @NonNull GameFileStorage config, @NonNull GameFileStorage lobbyConfig) {
+        String enabledPath = LOBBY_SCOREBOARD_PATH + "enable-scoreboard";
+        return new ScoreboardSettings(
+                lobbyConfig.ensureBoolean(enabledPath) && lobbyConfig.getBoolean(enabledPath),
+                MessageTemplate.compile(lobbyConfig.getString(LOBBY_SCOREBOARD_PATH + "title")).render(),
+                compileTemplate(logger, lobbyConfig, LOBBY_SCOREBOARD_PATH + "lines", "lobby.yml"),
+                MessageTemplate.compile(config.getString("game.scoreboard.title")).render(),
+                compileTemplate(logger, config, "game.scoreboard.waiting-lines", "config.yml"),
+                compileTemplate(logger, config, "game.scoreboard.game-lines", "config.yml")
+        );
+    }
+
+    /**
+     * Compile the scoreboard lines found in a configuration into a template.
+     *
+     * @param logger The logger to warn in if the lines are invalid.
+     * @param storage The configuration to get the lines from.
+     * @param path The path of the lines in the configuration.
+     * @param fileName The name of the configuration file, used when logging invalid lines.
+     * @return The compiled template.
+     */
+    private static @NonNull ScoreboardTemplate compileTemplate(@NonNull Logger logger, @NonNull GameFileStorage storage, @NonNull String path, @NonNull String fileName) {
+        if (!storage.ensureList(path)) {
+            logger.warning("The scoreboard lines in " + fileName + " at " + path + " are not valid!");
+        }
+
+        return new ScoreboardTemplate(storage.getStringList(path));
+    }
+}
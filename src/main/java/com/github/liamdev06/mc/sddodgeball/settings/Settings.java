@@ -0,0 +1,64 @@
+package com.github.liamdev06.mc.sddodgeball.settings;
+
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * An immutable snapshot of the plugin settings, read once from config.yml, lobby.yml and messages.yml.
+ * Code that runs often reads the already parsed values from here instead of looking them up in the
+ * configuration files every time. A new snapshot is built and swapped in whenever the files change.
+ *
+ * @param game The game settings from config.yml.
+ * @param lobby The lobby settings from lobby.yml.
+ * @param scoreboard The compiled scoreboards from config.yml and lobby.yml.
+ * @param messages The compiled messages from messages.yml.
+ */
+public record Settings(@NonNull GameSettings game, @NonNull LobbySettings lobby,
+                       @NonNull ScoreboardSettings scoreboard, @NonNull MessageSettings messages) {
+
+    /**
+     * Check the configurations for values that cannot be replaced with a fallback.
+     *
+     * @param config The plugin configuration, config.yml.
+     * @param lobbyConfig The lobby configuration, lobby.yml.
+     * @return The problems found in the configurations, empty if they are valid.
+     */
+    public static @NonNull List<String> validate(@NonNull GameFileStorage config, @NonNull GameFileStorage lobbyConfig) {
+        List<String> problems = new ArrayList<>(GameSettings.validate(config));
+        for (String path : new String[] { "game.scoreboard.waiting-lines", "game.scoreboard.game-lines" }) {
+            if (!config.ensureList(path)) {
+                problems.add("config.yml: " + path + " is not a list of lines");
+            }
+        }
+
+        if (!lobbyConfig.ensureList("scoreboard.lines")) {
+            problems.add("lobby.yml: scoreboard.lines is not a list of lines");
+        }
+
+        return problems;
+    }
+
+    /**
+     * Read every setting from the configurations. Invalid values are logged once here, and replaced with a fallback.
+     *
+     * @param logger The logger to warn in about invalid values.
+     * @param config The plugin configuration, config.yml.
+     * @param lobbyConfig The lobby configuration, lobby.yml.
+     * @param messagesConfig The messages configuration, messages.yml.
+     * @return The new settings.
+     */
+    public static @NonNull Settings load(@NonNull Logger logger, @NonNull GameFileStorage config,
+                                         @NonNull GameFileStorage lobbyConfig, @NonNull FileConfiguration messagesConfig) {
+        return new Settings(
+                GameSettings.load(config),
+                LobbySettings.load(logger, lobbyConfig),
+                ScoreboardSettings.load(logger, config, lobbyConfig),
+                MessageSettings.load(messagesConfig)
+        );
+    }
+}
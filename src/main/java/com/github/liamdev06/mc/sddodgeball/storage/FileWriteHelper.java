@@ -0,0 +1,44 @@
+package com.github.liamdev06.mc.sddodgeball.storage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Utility and helper class when writing storage files.
+ */
+public class FileWriteHelper {
+
+    /**
+     * Replace a file by writing the contents to a temporary file next to it and
+     * moving it over the actual file, so a crash mid-write never leaves a half written file behind.
+     * Every write uses its own temporary file, so writes to the same file at once never write into each other.
+     * The temporary file is created like any other file, so the file keeps the usual permissions once replaced.
+     *
+     * @param target The file to replace.
+     * @param contents The new contents of the file.
+     * @throws IOException If the file could not be written.
+     */
+    public static void writeAtomically(@NonNull Path target, @NonNull String contents) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+
+        try {
+            Files.writeString(temporary, contents, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
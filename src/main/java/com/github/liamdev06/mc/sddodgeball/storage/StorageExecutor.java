@@ -0,0 +1,129 @@
+package com.github.liamdev06.mc.sddodgeball.storage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs the blocking I/O of user storages away from both the main thread and the common pool.
+ * The amount of operations running or waiting at once is bounded, new operations fail straight
+ * away once the limit is reached, and every operation is given up on after a timeout.
+ */
+public class StorageExecutor {
+
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_QUEUE_SIZE = 256;
+    private static final int DEFAULT_TIMEOUT = 10;
+
+    private final @NonNull ExecutorService executor;
+    private final @NonNull Semaphore permits;
+    private final long timeout;
+
+    public StorageExecutor(int threads, int queueSize, long timeout) {
+        this.executor = createExecutor(Math.max(1, threads));
+        this.permits = new Semaphore(Math.max(1, queueSize));
+        this.timeout = Math.max(1, timeout);
+    }
+
+    /**
+     * Create the executor from the 'storage-executor' section of the plugin configuration.
+     *
+     * @param config The plugin configuration.
+     * @return The new storage executor.
+     */
+    public static @NonNull StorageExecutor fromConfig(@NonNull GameFileStorage config) {
+        int threads = config.contains("storage-executor.threads") ? config.getInt("storage-executor.threads") : DEFAULT_THREADS;
+        int queueSize = config.contains("storage-executor.queue-size") ? config.getInt("storage-executor.queue-size") : DEFAULT_QUEUE_SIZE;
+        int timeout = config.contains("storage-executor.timeout") ? config.getInt("storage-executor.timeout") : DEFAULT_TIMEOUT;
+        return new StorageExecutor(threads, queueSize, timeout);
+    }
+
+    /**
+     * Run an operation that returns a value.
+     *
+     * @param supplier The operation to run.
+     * @return A future completed with the value, or completed exceptionally if the queue is full, the operation failed or it timed out.
+     */
+    public <T> @NonNull CompletableFuture<T> supply(@NonNull Supplier<T> supplier) {
+        if (!this.permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("The user storage queue is full"));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            // The permit is only given back once the operation itself is done, so hung operations keep taking up the queue
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return supplier.get();
+                } finally {
+                    this.permits.release();
+                }
+            }, this.executor);
+        } catch (RejectedExecutionException exception) {
+            this.permits.release();
+            return CompletableFuture.failedFuture(exception);
+        }
+
+        // Time out a copy, so a timed out caller does not complete the running operation
+        return future.copy().orTimeout(this.timeout, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Run an operation that does not return a value.
+     *
+     * @param runnable The operation to run.
+     * @return A future completed once the operation is done, or completed exceptionally if the queue is full, the operation failed or it timed out.
+     */
+    public @NonNull CompletableFuture<Void> run(@NonNull Runnable runnable) {
+        return this.supply(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stop accepting new operations and wait for the queued ones to finish.
+     *
+     * @param logger The logger to warn in if not every operation finished in time.
+     */
+    public void shutdown(@NonNull Logger logger) {
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(this.timeout, TimeUnit.SECONDS)) {
+                logger.warning("Not every user storage operation finished within " + this.timeout + " seconds of shutting down.");
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Use virtual threads when the runtime supports them, or else a fixed amount of platform threads.
+     *
+     * @param threads The amount of platform threads to use without virtual threads.
+     * @return The executor the operations are run on.
+     */
+    private static @NonNull ExecutorService createExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "Dodgeball Storage #" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -4,9 +4,13 @@ import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * Holds information about a User. In a bigger network,
@@ -15,50 +19,101 @@ import java.util.UUID;
  */
 public class User {
 
+    private static final @NonNull UserStat[] STATS = UserStat.values();
+
     private final @NonNull UUID uuid;
-    private @NonNull Map<String, Object> values;
+    private final @NonNull AtomicIntegerArray stats;
+    private volatile @NonNull Map<String, Object> values;
+    private final @NonNull Set<String> dirtyKeys;
     private final @NonNull MetadataValues metadataValues;
 
     public User(@NonNull UUID uuid) {
         this.uuid = uuid;
-        this.values = new HashMap<>();
+        this.stats = new AtomicIntegerArray(STATS.length);
+        this.values = new ConcurrentHashMap<>();
+        this.dirtyKeys = ConcurrentHashMap.newKeySet();
         this.metadataValues = new MetadataValues(DodgeballPlugin.getInstance());
     }
 
+    public int getStat(@NonNull UserStat stat) {
+        return this.stats.get(stat.ordinal());
+    }
+
+    public void setStat(@NonNull UserStat stat, int value) {
+        this.stats.set(stat.ordinal(), value);
+        this.dirtyKeys.add(stat.getKey());
+    }
+
+    /**
+     * Atomically add to a stat of the user.
+     *
+     * @param stat The stat to add to.
+     * @param amount The amount to add.
+     */
+    public void addStat(@NonNull UserStat stat, int amount) {
+        this.stats.addAndGet(stat.ordinal(), amount);
+        this.dirtyKeys.add(stat.getKey());
+    }
+
     public int getLevel() {
-        return this.getInt("level");
+        return this.getStat(UserStat.LEVEL);
     }
 
     public void setLevel(int level) {
-        this.set("level", level);
+        this.setStat(UserStat.LEVEL, level);
     }
 
     public int getCoins() {
-        return this.getInt("coins");
+        return this.getStat(UserStat.COINS);
+    }
+
+    public void setCoins(int coins) {
+        this.setStat(UserStat.COINS, coins);
     }
 
-    public void setCoins(int level) {
-        this.set("coins", level);
+    public void addCoins(int coins) {
+        this.addStat(UserStat.COINS, coins);
     }
 
     public int getLifetimeKills() {
-        return this.getInt("lifetimeKills");
+        return this.getStat(UserStat.LIFETIME_KILLS);
     }
 
     public void setLifetimeKills(int kills) {
-        this.set("lifetimeKills", kills);
+        this.setStat(UserStat.LIFETIME_KILLS, kills);
+    }
+
+    public void incrementLifetimeKills() {
+        this.addStat(UserStat.LIFETIME_KILLS, 1);
     }
 
     public int getLifetimeDeaths() {
-        return this.getInt("lifetimeDeaths");
+        return this.getStat(UserStat.LIFETIME_DEATHS);
     }
 
     public void setLifetimeDeaths(int lifetimeDeaths) {
-        this.set("lifetimeDeaths", lifetimeDeaths);
+        this.setStat(UserStat.LIFETIME_DEATHS, lifetimeDeaths);
+    }
+
+    public void incrementLifetimeDeaths() {
+        this.addStat(UserStat.LIFETIME_DEATHS, 1);
     }
 
     public void set(@NonNull String key, Object value) {
-        this.values.put(key, value);
+        UserStat stat = UserStat.fromKey(key);
+        if (stat != null) {
+            this.setStat(stat, parseInt(value));
+            return;
+        }
+
+        // Concurrent maps can not hold null, so a null value removes the key
+        if (value == null) {
+            this.values.remove(key);
+        } else {
+            this.values.put(key, value);
+        }
+
+        this.dirtyKeys.add(key);
     }
 
     public String getString(@NonNull String key) {
@@ -67,6 +122,11 @@ public class User {
     }
 
     public int getInt(@NonNull String key) {
+        UserStat stat = UserStat.fromKey(key);
+        if (stat != null) {
+            return this.getStat(stat);
+        }
+
         Object object = this.get(key);
         return object == null ? 0 : Integer.parseInt(String.valueOf(object));
     }
@@ -97,19 +157,117 @@ public class User {
     }
 
     private @Nullable Object get(@NonNull String key) {
-        if (this.values.containsKey(key)) {
-            return this.values.get(key);
+        UserStat stat = UserStat.fromKey(key);
+        return stat == null ? this.values.get(key) : this.getStat(stat);
+    }
+
+    private static int parseInt(@Nullable Object value) {
+        if (value == null) {
+            return 0;
         }
 
-        return null;
+        return value instanceof Number number ? number.intValue() : Integer.parseInt(String.valueOf(value));
     }
 
+    /**
+     * Replace all values of the user, such as when loaded from storage. The new values are not marked as changed.
+     *
+     * @param values The new values of the user.
+     */
     public void setValues(@NonNull Map<String, Object> values) {
-        this.values = values;
+        int[] stats = new int[STATS.length];
+        Map<String, Object> customValues = new HashMap<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            UserStat stat = UserStat.fromKey(entry.getKey());
+            if (stat == null) {
+                customValues.put(entry.getKey(), entry.getValue());
+            } else {
+                stats[stat.ordinal()] = parseInt(entry.getValue());
+            }
+        }
+
+        this.load(stats, customValues);
     }
 
+    /**
+     * Replace all stats and custom values of the user, such as when loaded from storage.
+     * The new values are not marked as changed.
+     *
+     * @param stats The stats of the user, indexed by {@link UserStat#ordinal()}.
+     * @param customValues The values of the user that are not stats.
+     */
+    public void load(int @NonNull [] stats, @NonNull Map<String, Object> customValues) {
+        for (int i = 0; i < STATS.length; i++) {
+            this.stats.set(i, i < stats.length ? stats[i] : 0);
+        }
+
+        Map<String, Object> newValues = new ConcurrentHashMap<>();
+        for (Map.Entry<String, Object> entry : customValues.entrySet()) {
+            if (entry.getValue() != null) {
+                newValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        this.values = newValues;
+        this.dirtyKeys.clear();
+    }
+
+    /**
+     * Safe to call from any thread, such as when saving the user asynchronously.
+     *
+     * @return A copy of all values of the user, including the stats.
+     */
     public @NonNull Map<String, Object> getValues() {
-        return this.values;
+        Map<String, Object> snapshot = new HashMap<>(this.values);
+        for (UserStat stat : STATS) {
+            snapshot.put(stat.getKey(), this.getStat(stat));
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * @return A copy of the stats of the user, indexed by {@link UserStat#ordinal()}.
+     */
+    public int @NonNull [] getStats() {
+        int[] snapshot = new int[STATS.length];
+        for (int i = 0; i < STATS.length; i++) {
+            snapshot[i] = this.stats.get(i);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * @return A copy of the values of the user that are not stats.
+     */
+    public @NonNull Map<String, Object> getCustomValues() {
+        return new HashMap<>(this.values);
+    }
+
+    /**
+     * Take all values changed since the last time this was called, and mark them as unchanged.
+     *
+     * @return The changed keys and their current values.
+     */
+    public @NonNull Map<String, Object> takeChangedValues() {
+        Map<String, Object> changed = new HashMap<>();
+        for (String key : this.dirtyKeys) {
+            // Remove before reading so a change made in between is kept for the next save
+            this.dirtyKeys.remove(key);
+            changed.put(key, this.get(key));
+        }
+
+        return changed;
+    }
+
+    /**
+     * Mark values as changed again, such as when saving them failed.
+     *
+     * @param keys The keys to mark as changed.
+     */
+    public void markChanged(@NonNull Collection<String> keys) {
+        this.dirtyKeys.addAll(keys);
     }
 
     public @NonNull MetadataValues getMetadataValues() {
@@ -0,0 +1,66 @@
+package com.github.liamdev06.mc.sddodgeball.storage.user;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The core stats every {@link User} has. These are kept in primitive fields
+ * instead of the generic value map, and stored under their key by every user storage.
+ */
+public enum UserStat {
+
+    LEVEL("level", "level"),
+    COINS("coins", "coins"),
+    LIFETIME_KILLS("lifetimeKills", "lifetime_kills"),
+    LIFETIME_DEATHS("lifetimeDeaths", "lifetime_deaths");
+
+    private static final @NonNull Map<String, UserStat> BY_KEY = new HashMap<>();
+    private static final @NonNull Map<String, UserStat> BY_PLACEHOLDER = new HashMap<>();
+
+    static {
+        for (UserStat stat : values()) {
+            BY_KEY.put(stat.key, stat);
+            BY_PLACEHOLDER.put(stat.placeholder, stat);
+        }
+    }
+
+    private final @NonNull String key, placeholder;
+
+    UserStat(@NonNull String key, @NonNull String placeholder) {
+        this.key = key;
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * @return The key the stat is stored under.
+     */
+    public @NonNull String getKey() {
+        return this.key;
+    }
+
+    /**
+     * @return The name the stat has in placeholders.
+     */
+    public @NonNull String getPlaceholder() {
+        return this.placeholder;
+    }
+
+    /**
+     * @param key The key to look up.
+     * @return The stat stored under the key, or null if the key is a custom value.
+     */
+    public static @Nullable UserStat fromKey(@NonNull String key) {
+        return BY_KEY.get(key);
+    }
+
+    /**
+     * @param placeholder The placeholder name to look up.
+     * @return The stat with the placeholder name, or null if no stat has it.
+     */
+    public static @Nullable UserStat fromPlaceholder(@NonNull String placeholder) {
+        return BY_PLACEHOLDER.get(placeholder);
+    }
+}
@@ -0,0 +1,197 @@
+package com.github.liamdev06.mc.sddodgeball.storage.user.storage;
+
+import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages user storing with a binary, memory mapped record log within the plugin data folder.
+ * Loading and saving a user only reads or appends that user's record, so both are done directly
+ * on the calling thread.
+ *
+ * @see UserRecordLog
+ */
+public class BinaryUserStorage implements IUserStorage {
+
+    private static final int DEFAULT_COMPACTION_INTERVAL = 5;
+
+    private final @NonNull DodgeballPlugin plugin;
+    private final @NonNull Map<UUID, User> users;
+    private final @NonNull RecentUserCache recentUsers;
+    private final @NonNull UserRecordLog log;
+    private final @NonNull BukkitTask compactionTask;
+
+    public BinaryUserStorage(@NonNull DodgeballPlugin plugin) {
+        this.plugin = plugin;
+        this.users = new ConcurrentHashMap<>();
+        this.recentUsers = RecentUserCache.fromConfig(plugin.getPluginConfig());
+
+        try {
+            this.log = new UserRecordLog(new File(plugin.getDataFolder(), "user_records"));
+        } catch (IOException exception) {
+            throw new IllegalStateException("The user record log could not be opened", exception);
+        }
+
+        // Flush and compact the log on an interval
+        GameFileStorage config = plugin.getPluginConfig();
+        int compactionInterval = config.contains("binary-storage.compaction-interval") ? config.getInt("binary-storage.compaction-interval") : DEFAULT_COMPACTION_INTERVAL;
+        long compactionTicks = Math.max(1, compactionInterval) * 60L * 20L;
+        this.compactionTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::maintainLog, compactionTicks, compactionTicks);
+    }
+
+    @Override
+    public CompletableFuture<User> getUser(@NonNull UUID uuid) {
+        // Return user if they are in cache
+        if (this.users.containsKey(uuid)) {
+            return CompletableFuture.supplyAsync(() -> this.users.get(uuid), Runnable::run)
+                    .exceptionally(exception -> {
+                        exception.printStackTrace();
+                        return null;
+                    });
+        }
+
+        // Serve a user who recently left from memory
+        User recentUser = this.recentUsers.take(uuid);
+        if (recentUser != null) {
+            this.users.put(uuid, recentUser);
+            return CompletableFuture.completedFuture(recentUser);
+        }
+
+        // Load in user from the log
+        return this.loadUserFromStorage(uuid);
+    }
+
+    @Override
+    @Nullable
+    public User getCachedUser(@NonNull UUID uuid) {
+        return this.users.get(uuid);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveUserToStorage(@NonNull UUID uuid) {
+        return CompletableFuture.runAsync(() -> {
+            User user = this.users.get(uuid);
+            if (user == null) {
+                return;
+            }
+
+            try {
+                this.log.write(uuid, new UserRecordLog.UserRecord(user.getStats(), user.getCustomValues()));
+            } catch (IOException exception) {
+                throw new IllegalStateException("The user " + uuid + " could not be saved", exception);
+            }
+        }, Runnable::run).exceptionally(exception -> {
+            exception.printStackTrace();
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<User> loadUserFromStorage(@NonNull UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            UserRecordLog.UserRecord record;
+            try {
+                record = this.log.read(uuid);
+            } catch (IOException exception) {
+                throw new IllegalStateException("The user " + uuid + " could not be loaded", exception);
+            }
+
+            if (record == null) {
+                return null;
+            }
+
+            // Create new user and save
+            User user = new User(uuid);
+            user.load(record.stats(), record.values());
+            this.users.put(uuid, user);
+
+            // Return user
+            return user;
+        }, Runnable::run).exceptionally(ex -> {
+            ex.printStackTrace();
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, Integer>> loadTopStat(@NonNull UserStat stat, int limit) {
+        return CompletableFuture.supplyAsync(() -> IUserStorage.selectTop(this.log.readStat(stat.ordinal()), limit), Runnable::run);
+    }
+
+    @Override
+    public CompletableFuture<User> createNewUser(@NonNull UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            User user = new User(uuid);
+            this.users.put(uuid, user);
+
+            try {
+                this.log.write(uuid, new UserRecordLog.UserRecord(user.getStats(), user.getCustomValues()));
+            } catch (IOException exception) {
+                throw new IllegalStateException("The user " + uuid + " could not be created", exception);
+            }
+
+            return user;
+        }, Runnable::run).exceptionally(exception -> {
+            exception.printStackTrace();
+            return null;
+        });
+    }
+
+    @Override
+    public void removeUserFromCache(@NonNull UUID uuid) {
+        User user = this.users.remove(uuid);
+        if (user != null) {
+            this.recentUsers.put(user);
+        }
+    }
+
+    @Override
+    public void handleShutdown() {
+        this.compactionTask.cancel();
+
+        // Since the server is shutting down this action can be blocking
+        try {
+            if (this.log.needsCompaction()) {
+                this.log.compact();
+            }
+
+            this.log.close();
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Flush the log to the disk, and compact it if enough of it is taken up by replaced records.
+     */
+    private void maintainLog() {
+        try {
+            if (this.log.needsCompaction()) {
+                this.log.compact();
+                this.plugin.getLogger().info("The user record log was compacted.");
+            } else {
+                this.log.force();
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    @Override
+    @NonNull
+    public Map<UUID, User> getUsers() {
+        return this.users;
+    }
+}
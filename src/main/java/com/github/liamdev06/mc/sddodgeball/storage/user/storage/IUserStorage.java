@@ -1,9 +1,12 @@
 package com.github.liamdev06.mc.sddodgeball.storage.user.storage;
 
 import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -23,8 +26,30 @@ public interface IUserStorage {
 
     CompletableFuture<Void> saveUserToStorage(@NonNull UUID uuid);
 
+    /**
+     * Save many users at once. Storages that can write several users in one operation
+     * should override this instead of saving every user on its own.
+     *
+     * @param uuids The UUIDs of the cached users to save.
+     * @return A future completed once every user has been saved.
+     */
+    default CompletableFuture<Void> saveUsersToStorage(@NonNull Collection<UUID> uuids) {
+        return CompletableFuture.allOf(uuids.stream()
+                .map(this::saveUserToStorage)
+                .toArray(CompletableFuture[]::new));
+    }
+
     CompletableFuture<User> loadUserFromStorage(@NonNull UUID uuid);
 
+    /**
+     * Load the users with the highest value of a stat, used to seed the leaderboards.
+     *
+     * @param stat The stat to rank by.
+     * @param limit The max amount of users to load.
+     * @return A future completed with the UUIDs and stat values of the highest ranked users.
+     */
+    CompletableFuture<Map<UUID, Integer>> loadTopStat(@NonNull UserStat stat, int limit);
+
     CompletableFuture<User> createNewUser(@NonNull UUID uuid);
 
     void removeUserFromCache(@NonNull UUID uuid);
@@ -32,4 +57,18 @@ public interface IUserStorage {
     @NonNull Map<UUID, User> getUsers();
 
     default void handleShutdown() {}
+
+    /**
+     * @param scores The stat values of users.
+     * @param limit The max amount of users to keep.
+     * @return The users with the highest values, at most {@param limit}.
+     */
+    static @NonNull Map<UUID, Integer> selectTop(@NonNull Map<UUID, Integer> scores, int limit) {
+        Map<UUID, Integer> top = new HashMap<>();
+        scores.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
 }
\ No newline at end of file
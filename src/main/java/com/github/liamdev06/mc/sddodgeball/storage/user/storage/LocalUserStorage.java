@@ -2,30 +2,74 @@ package com.github.liamdev06.mc.sddodgeball.storage.user.storage;
 
 import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
+import com.github.liamdev06.mc.sddodgeball.storage.FileWriteHelper;
 import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Manages user storing with local storage within the
- * plugin data folder.
+ * plugin data folder. Saving a user only updates the configuration in memory,
+ * changed users are then written to the file together in one write on an interval,
+ * when many users are waiting to be written and on shutdown.
+ * <p>
+ * Only the changed users are copied on the main thread. The file is serialized by the writer
+ * from its own copy of the player data, which only the writer touches.
  */
 public class LocalUserStorage implements IUserStorage {
 
+    private static final int DEFAULT_FLUSH_INTERVAL = 30;
+    private static final int DEFAULT_FLUSH_THRESHOLD = 25;
+
+    private final @NonNull DodgeballPlugin plugin;
     private final @NonNull Map<UUID, User> users;
+    private final @NonNull RecentUserCache recentUsers;
     private final @NonNull GameFileStorage userStorage;
+    private final @NonNull Set<UUID> dirtyUsers;
+    private final @NonNull Object writeLock;
+    private final @NonNull Queue<Map<UUID, Object>> pendingSnapshots;
+    private final @NonNull YamlConfiguration writtenData;
+    private final int flushThreshold;
+    private final @NonNull BukkitTask flushTask;
+    private boolean writtenDataChanged;
+    private volatile boolean retryFlush;
 
     public LocalUserStorage(@NonNull DodgeballPlugin plugin) {
-        this.users = new HashMap<>();
+        this.plugin = plugin;
+        this.users = new ConcurrentHashMap<>();
+        this.recentUsers = RecentUserCache.fromConfig(plugin.getPluginConfig());
         this.userStorage = plugin.getPlayerDataFileStorage();
+        this.dirtyUsers = new HashSet<>();
+        this.writeLock = new Object();
+        this.pendingSnapshots = new ConcurrentLinkedQueue<>();
+        this.writtenData = YamlConfiguration.loadConfiguration(this.userStorage.configurationFile());
+
+        // Write changed users on an interval
+        GameFileStorage config = plugin.getPluginConfig();
+        int flushInterval = config.contains("local-storage.flush-interval") ? config.getInt("local-storage.flush-interval") : DEFAULT_FLUSH_INTERVAL;
+        this.flushThreshold = config.contains("local-storage.flush-threshold") ? Math.max(1, config.getInt("local-storage.flush-threshold")) : DEFAULT_FLUSH_THRESHOLD;
+        long flushTicks = Math.max(1, flushInterval) * 20L;
+        this.flushTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> this.flush(false), flushTicks, flushTicks);
     }
 
     @Override
@@ -39,6 +83,13 @@ public class LocalUserStorage implements IUserStorage {
                     });
         }
 
+        // Serve a user who recently left from memory
+        User recentUser = this.recentUsers.take(uuid);
+        if (recentUser != null) {
+            this.users.put(uuid, recentUser);
+            return CompletableFuture.completedFuture(recentUser);
+        }
+
         // Load in user from data.yml
         if (this.userStorage.contains("user_data." + uuid)) {
             return this.loadUserFromStorage(uuid);
@@ -56,35 +107,30 @@ public class LocalUserStorage implements IUserStorage {
 
     @Override
     public CompletableFuture<Void> saveUserToStorage(@NonNull UUID uuid) {
-        return CompletableFuture.runAsync(() -> {
-            if (!this.users.containsKey(uuid)) {
-                return;
-            }
-
-            // Get user and file
-            User user = this.users.get(uuid);
+        if (this.storeValues(uuid)) {
+            this.markDirty(uuid);
+        }
 
-            FileConfiguration store = this.userStorage.configuration();
-            String path = "user_data." + uuid + ".";
+        return CompletableFuture.completedFuture(null);
+    }
 
-            // Store values
-            for (String key : user.getValues().keySet()) {
-                Object value = user.getValues().get(key);
-                store.set(path + key, value);
+    @Override
+    public CompletableFuture<Void> saveUsersToStorage(@NonNull Collection<UUID> uuids) {
+        for (UUID uuid : uuids) {
+            if (this.storeValues(uuid)) {
+                this.dirtyUsers.add(uuid);
             }
+        }
 
-            // Save file
-            try {
-                store.save(this.userStorage.configurationFile());
-            } catch (IOException exception) {
-                exception.printStackTrace();
-            }
-        }, Runnable::run);
+        // Write every user at once, blocking if the plugin is shutting down
+        this.flush(!this.plugin.isEnabled());
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
     public CompletableFuture<User> loadUserFromStorage(@NonNull UUID uuid) {
         return CompletableFuture.supplyAsync(() -> {
+            int[] stats = new int[UserStat.values().length];
             Map<String, Object> values = new HashMap<>();
             String path = "user_data." + uuid;
 
@@ -92,18 +138,22 @@ public class LocalUserStorage implements IUserStorage {
                 return null;
             }
 
-            // Load in values
+            // Load in stats and values
             ConfigurationSection section = this.userStorage.getSection(path);
             if (section != null) {
                 for (String key : section.getKeys(false)) {
-                    Object value = section.get(key);
-                    values.put(key, value);
+                    UserStat stat = UserStat.fromKey(key);
+                    if (stat == null) {
+                        values.put(key, section.get(key));
+                    } else {
+                        stats[stat.ordinal()] = section.getInt(key);
+                    }
                 }
             }
 
             // Create new user and save
             User user = new User(uuid);
-            user.setValues(values);
+            user.load(stats, values);
             this.users.put(uuid, user);
 
             // Return user
@@ -114,12 +164,35 @@ public class LocalUserStorage implements IUserStorage {
         });
     }
 
+    @Override
+    public CompletableFuture<Map<UUID, Integer>> loadTopStat(@NonNull UserStat stat, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<UUID, Integer> scores = new HashMap<>();
+            ConfigurationSection section = this.userStorage.getSection("user_data");
+            if (section == null) {
+                return scores;
+            }
+
+            // Scan every stored user
+            for (String key : section.getKeys(false)) {
+                try {
+                    scores.put(UUID.fromString(key), section.getInt(key + "." + stat.getKey()));
+                } catch (IllegalArgumentException exception) {
+                    this.plugin.getLogger().warning("Skipped the user '" + key + "' in player_data.yml since it is not a valid UUID.");
+                }
+            }
+
+            return IUserStorage.selectTop(scores, limit);
+        }, Runnable::run);
+    }
+
     @Override
     public CompletableFuture<User> createNewUser(@NonNull UUID uuid) {
         String path = "user_data." + uuid;
 
         // Set default value
-        this.userStorage.set(path, "");
+        this.userStorage.setCache(path, "");
+        this.markDirty(uuid);
 
         // Load in user
         return this.loadUserFromStorage(uuid);
@@ -127,7 +200,157 @@ public class LocalUserStorage implements IUserStorage {
 
     @Override
     public void removeUserFromCache(@NonNull UUID uuid) {
-        this.users.remove(uuid);
+        User user = this.users.remove(uuid);
+        if (user != null) {
+            this.recentUsers.put(user);
+        }
+    }
+
+    @Override
+    public void handleShutdown() {
+        this.flushTask.cancel();
+
+        // Since the server is shutting down this action can be blocking
+        this.flush(true);
+    }
+
+    /**
+     * Copy the values of a cached user into the player data configuration, the file is written by the next flush.
+     *
+     * @param uuid The UUID of the user.
+     * @return If the user was cached and their values were copied.
+     */
+    private boolean storeValues(@NonNull UUID uuid) {
+        User user = this.users.get(uuid);
+        if (user == null) {
+            return false;
+        }
+
+        FileConfiguration store = this.userStorage.configuration();
+        String section = "user_data." + uuid;
+        String path = section + ".";
+
+        // Clear the section first so values removed from the user are removed from the file too
+        store.set(section, null);
+
+        // Store stats and values
+        int[] stats = user.getStats();
+        for (UserStat stat : UserStat.values()) {
+            store.set(path + stat.getKey(), stats[stat.ordinal()]);
+        }
+
+        for (Map.Entry<String, Object> entry : user.getCustomValues().entrySet()) {
+            store.set(path + entry.getKey(), entry.getValue());
+        }
+
+        return true;
+    }
+
+    /**
+     * Mark a user as changed so they are written by the next flush. If many users
+     * are waiting to be written, such as when a lot of players quit at the same time, flush straight away.
+     * While the plugin is disabling, everything is written once by {@link #handleShutdown()} instead.
+     *
+     * @param uuid The UUID of the changed user.
+     */
+    private void markDirty(@NonNull UUID uuid) {
+        this.dirtyUsers.add(uuid);
+
+        if (this.dirtyUsers.size() >= this.flushThreshold && this.plugin.isEnabled()) {
+            this.flush(false);
+        }
+    }
+
+    /**
+     * Write all changed users to the player data file in one write. Only the changed users are
+     * copied on the calling thread, and the file is written either on the calling thread or asynchronously.
+     *
+     * @param blocking If the file should be written on the calling thread.
+     */
+    private void flush(boolean blocking) {
+        if (this.dirtyUsers.isEmpty() && !this.retryFlush) {
+            return;
+        }
+
+        Map<UUID, Object> snapshot = new HashMap<>();
+        for (UUID uuid : this.dirtyUsers) {
+            snapshot.put(uuid, this.copyUser(uuid));
+        }
+
+        this.dirtyUsers.clear();
+        this.retryFlush = false;
+        this.pendingSnapshots.add(snapshot);
+
+        if (blocking) {
+            this.write();
+        } else {
+            this.plugin.getStorageExecutor().run(this::write)
+                    .exceptionally(exception -> {
+                        // Write again on the next flush even if nothing else changed
+                        this.retryFlush = true;
+                        this.plugin.getLogger().warning("Player data could not be written: " + exception.getMessage());
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Copy the stored values of a user out of the player data configuration.
+     *
+     * @param uuid The UUID of the user.
+     * @return Every value of the user by its path, or the raw value if the user is not stored as a section.
+     */
+    private @Nullable Object copyUser(@NonNull UUID uuid) {
+        Object stored = this.userStorage.configuration().get("user_data." + uuid);
+        if (!(stored instanceof ConfigurationSection section)) {
+            return stored;
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<String, Object> entry : section.getValues(true).entrySet()) {
+            Object value = entry.getValue();
+            if (!(value instanceof ConfigurationSection)) {
+                values.put(entry.getKey(), value instanceof List<?> list ? new ArrayList<>(list) : value);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Apply every pending snapshot to the written copy of the player data in the order they were taken,
+     * and atomically replace the player data file with it. Nothing is written if an earlier write already took every snapshot.
+     */
+    private void write() {
+        synchronized (this.writeLock) {
+            Map<UUID, Object> snapshot;
+            while ((snapshot = this.pendingSnapshots.poll()) != null) {
+                for (Map.Entry<UUID, Object> entry : snapshot.entrySet()) {
+                    String path = "user_data." + entry.getKey();
+                    this.writtenData.set(path, null);
+
+                    if (entry.getValue() instanceof Map<?, ?> values) {
+                        values.forEach((key, value) -> this.writtenData.set(path + "." + key, value));
+                    } else {
+                        this.writtenData.set(path, entry.getValue());
+                    }
+                }
+
+                this.writtenDataChanged = true;
+            }
+
+            if (!this.writtenDataChanged) {
+                return;
+            }
+
+            try {
+                FileWriteHelper.writeAtomically(this.userStorage.configurationFile().toPath(), this.writtenData.saveToString());
+                this.writtenDataChanged = false;
+            } catch (IOException exception) {
+                this.retryFlush = true;
+                exception.printStackTrace();
+            }
+        }
     }
 
     @Override
@@ -135,4 +358,4 @@ public class LocalUserStorage implements IUserStorage {
     public Map<UUID, User> getUsers() {
         return this.users;
     }
-}
\ No newline at end of file
+}
@@ -2,23 +2,36 @@ package com.github.liamdev06.mc.sddodgeball.storage.user.storage;
 
 import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
 import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.storage.StorageExecutor;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages user storing using MongoDB.
@@ -26,12 +39,16 @@ import java.util.concurrent.CompletableFuture;
 public class MongoUserStorage implements IUserStorage {
 
     private final @NonNull Map<UUID, User> users;
+    private final @NonNull RecentUserCache recentUsers;
+    private final @NonNull StorageExecutor executor;
     private MongoClient client;
     private MongoDatabase database;
     private MongoCollection<Document> usersCollection;
 
     public MongoUserStorage(@NonNull DodgeballPlugin plugin, @NonNull MongoCredentials credentials) {
-        this.users = new HashMap<>();
+        this.users = new ConcurrentHashMap<>();
+        this.recentUsers = RecentUserCache.fromConfig(plugin.getPluginConfig());
+        this.executor = plugin.getStorageExecutor();
         GameFileStorage config = plugin.getPluginConfig();
 
         // Connect to the database
@@ -75,6 +92,16 @@ public class MongoUserStorage implements IUserStorage {
             this.database.createCollection(usersCollection);
             this.usersCollection = this.database.getCollection(usersCollection);
         }
+
+        // Let the database sort the leaderboards by an index on every stat
+        this.executor.run(() -> {
+            for (UserStat stat : UserStat.values()) {
+                this.usersCollection.createIndex(Indexes.descending(stat.getKey()));
+            }
+        }).exceptionally(exception -> {
+            exception.printStackTrace();
+            return null;
+        });
     }
 
     @Override
@@ -87,6 +114,13 @@ public class MongoUserStorage implements IUserStorage {
                     });
         }
 
+        // Serve a user who recently left from memory
+        User recentUser = this.recentUsers.take(uuid);
+        if (recentUser != null) {
+            this.users.put(uuid, recentUser);
+            return CompletableFuture.completedFuture(recentUser);
+        }
+
         // Load in user from the database
         return this.loadUserFromStorage(uuid);
     }
@@ -99,51 +133,67 @@ public class MongoUserStorage implements IUserStorage {
 
     @Override
     public CompletableFuture<Void> saveUserToStorage(@NonNull UUID uuid) {
-        return CompletableFuture.runAsync(() -> {
-            if (!this.users.containsKey(uuid)) {
-                return;
-            }
+        User user = this.users.get(uuid);
+        if (user == null) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-            // Get user and their document
-            User user = this.users.get(uuid);
+        // Only the values changed since the last save are sent
+        Map<String, Object> changes = user.takeChangedValues();
+        changes.remove("_id");
+        if (changes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-            String sUuid = uuid.toString();
-            Bson filter = Filters.eq("_id", sUuid);
-            Document document = this.usersCollection.find(filter).first();
+        return this.executor.run(() -> {
+            Bson filter = Filters.eq("_id", uuid.toString());
+            this.usersCollection.updateOne(filter, createUpdate(changes), new UpdateOptions().upsert(true));
+        }).exceptionally(exception -> {
+            // Try to save the values again next time
+            user.markChanged(changes.keySet());
+            exception.printStackTrace();
+            return null;
+        });
+    }
 
-            boolean newDocument = false;
-            if (document == null) {
-                document = new Document();
-                newDocument = true;
+    @Override
+    public CompletableFuture<Void> saveUsersToStorage(@NonNull Collection<UUID> uuids) {
+        // Collect one upsert for every user with changed values
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        Map<User, Map<String, Object>> changedUsers = new HashMap<>();
+        for (UUID uuid : uuids) {
+            User user = this.users.get(uuid);
+            if (user == null) {
+                continue;
             }
 
-            // Store values
-            Map<String, Object> values = user.getValues();
-            for (String key : values.keySet()) {
-                Object value = values.get(key);
-
-                if (document.containsKey(key)) {
-                    document.replace(key, value);
-                } else {
-                    document.append(key, value);
-                }
+            Map<String, Object> changes = user.takeChangedValues();
+            changes.remove("_id");
+            if (changes.isEmpty()) {
+                continue;
             }
 
-            // Save the document
-            if (newDocument) {
-                this.usersCollection.insertOne(document);
-            } else {
-                this.usersCollection.findOneAndReplace(filter, document);
-            }
-        }).exceptionally(exception -> {
-            exception.printStackTrace();
-            return null;
-        });
+            changedUsers.put(user, changes);
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", uuid.toString()), createUpdate(changes), new UpdateOptions().upsert(true)));
+        }
+
+        if (writes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Send every upsert in one unordered bulk write
+        return this.executor.run(() -> this.usersCollection.bulkWrite(writes, new BulkWriteOptions().ordered(false)))
+                .exceptionally(exception -> {
+                    // Try to save the values again next time
+                    changedUsers.forEach((user, changes) -> user.markChanged(changes.keySet()));
+                    exception.printStackTrace();
+                    return null;
+                });
     }
 
     @Override
     public CompletableFuture<User> loadUserFromStorage(@NonNull UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return this.executor.supply(() -> {
             String sUuid = uuid.toString();
 
             // Check if user exists
@@ -152,17 +202,24 @@ public class MongoUserStorage implements IUserStorage {
                 return null;
             }
 
-            // Retrieve values from the document
+            // Retrieve stats and values from the document
+            int[] stats = new int[UserStat.values().length];
             Map<String, Object> values = new HashMap<>();
             for (Map.Entry<String, Object> entry : document.entrySet()) {
                 String key = entry.getKey();
                 Object value = entry.getValue();
-                values.put(key, value);
+
+                UserStat stat = UserStat.fromKey(key);
+                if (stat == null) {
+                    values.put(key, value);
+                } else if (value instanceof Number number) {
+                    stats[stat.ordinal()] = number.intValue();
+                }
             }
 
             // Create new user and save
             User user = new User(uuid);
-            user.setValues(values);
+            user.load(stats, values);
             this.users.put(uuid, user);
 
             // Return the user
@@ -173,23 +230,41 @@ public class MongoUserStorage implements IUserStorage {
         });
     }
 
+    @Override
+    public CompletableFuture<Map<UUID, Integer>> loadTopStat(@NonNull UserStat stat, int limit) {
+        return this.executor.supply(() -> {
+            String key = stat.getKey();
+            Map<UUID, Integer> scores = new HashMap<>();
+            for (Document document : this.usersCollection.find()
+                    .sort(Sorts.descending(key))
+                    .limit(limit)
+                    .projection(Projections.include(key))) {
+                Object value = document.get(key);
+                if (value instanceof Number number) {
+                    scores.put(UUID.fromString(document.getString("_id")), number.intValue());
+                }
+            }
+
+            return scores;
+        });
+    }
+
     @Override
     public CompletableFuture<User> createNewUser(@NonNull UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return this.executor.supply(() -> {
             String sUuid = uuid.toString();
             Document document = new Document("_id", sUuid);
 
             // Save document to the collection
             this.usersCollection.insertOne(document);
 
-            // Load in the user
-            try {
-                return this.loadUserFromStorage(uuid).get();
-            } catch (Exception exception) {
-                exception.printStackTrace();
-            }
+            // Create the user from the inserted document instead of reading it back
+            Map<String, Object> values = new HashMap<>(document);
+            User user = new User(uuid);
+            user.setValues(values);
+            this.users.put(uuid, user);
 
-            return null;
+            return user;
         }).exceptionally(exception -> {
             exception.printStackTrace();
             return null;
@@ -198,7 +273,10 @@ public class MongoUserStorage implements IUserStorage {
 
     @Override
     public void removeUserFromCache(@NonNull UUID uuid) {
-        this.users.remove(uuid);
+        User user = this.users.remove(uuid);
+        if (user != null) {
+            this.recentUsers.put(user);
+        }
     }
 
     @Override
@@ -211,4 +289,34 @@ public class MongoUserStorage implements IUserStorage {
     public Map<UUID, User> getUsers() {
         return this.users;
     }
+
+    /**
+     * Create the update for the changed values of a user. Values that were removed
+     * are unset so the key is removed from the document instead of being stored as null.
+     *
+     * @param changes The changed values, with null for every removed value.
+     * @return The update document.
+     */
+    private static @NonNull Document createUpdate(@NonNull Map<String, Object> changes) {
+        Document set = new Document();
+        Document unset = new Document();
+        for (Map.Entry<String, Object> entry : changes.entrySet()) {
+            if (entry.getValue() == null) {
+                unset.append(entry.getKey(), "");
+            } else {
+                set.append(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Document update = new Document();
+        if (!set.isEmpty()) {
+            update.append("$set", set);
+        }
+
+        if (!unset.isEmpty()) {
+            update.append("$unset", unset);
+        }
+
+        return update;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.github.liamdev06.mc.sddodgeball.storage.user.storage;
+
+import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
+import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps users that recently left the server in memory for a short time, so a player
+ * reconnecting shortly after quitting does not have to be loaded from storage again.
+ * Users are evicted once their time to live has passed or when the cache is full, oldest first.
+ */
+public class RecentUserCache {
+
+    private static final int DEFAULT_TTL = 120;
+    private static final int DEFAULT_MAX_SIZE = 500;
+
+    private final @NonNull LinkedHashMap<UUID, CachedUser> users;
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public RecentUserCache(long ttlSeconds, int maxSize) {
+        this.users = new LinkedHashMap<>();
+        this.ttlMillis = Math.max(0, ttlSeconds) * 1000L;
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    /**
+     * Create the cache from the 'recent-users' section of the plugin configuration.
+     *
+     * @param config The plugin configuration.
+     * @return The new cache.
+     */
+    public static @NonNull RecentUserCache fromConfig(@NonNull GameFileStorage config) {
+        int ttl = config.contains("recent-users.ttl") ? config.getInt("recent-users.ttl") : DEFAULT_TTL;
+        int maxSize = config.contains("recent-users.max-size") ? config.getInt("recent-users.max-size") : DEFAULT_MAX_SIZE;
+        return new RecentUserCache(ttl, maxSize);
+    }
+
+    /**
+     * Keep a user that just left the server.
+     *
+     * @param user The user to keep.
+     */
+    public synchronized void put(@NonNull User user) {
+        if (this.maxSize == 0 || this.ttlMillis == 0) {
+            return;
+        }
+
+        // Re-insert so the user is ordered by when they left
+        UUID uuid = user.getUuid();
+        this.users.remove(uuid);
+        this.users.put(uuid, new CachedUser(user, System.currentTimeMillis() + this.ttlMillis));
+        this.evict();
+    }
+
+    /**
+     * Take a user back out of the cache, such as when they reconnect.
+     *
+     * @param uuid The UUID of the user.
+     * @return The user, or null if they did not recently leave or have been evicted.
+     */
+    public synchronized @Nullable User take(@NonNull UUID uuid) {
+        this.evict();
+
+        CachedUser cachedUser = this.users.remove(uuid);
+        return cachedUser == null ? null : cachedUser.user();
+    }
+
+    /**
+     * Remove every user whose time to live has passed, and the oldest users while the cache is over its max size.
+     * Users are ordered by when they left, so only the head of the map has to be checked.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<UUID, CachedUser>> iterator = this.users.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            CachedUser cachedUser = iterator.next().getValue();
+            if (cachedUser.expiresAt() > now && this.users.size() <= this.maxSize) {
+                break;
+            }
+
+            iterator.remove();
+        }
+    }
+
+    private record CachedUser(@NonNull User user, long expiresAt) {}
+}
@@ -0,0 +1,302 @@
+package com.github.liamdev06.mc.sddodgeball.storage.user.storage;
+
+import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
+import com.github.liamdev06.mc.sddodgeball.storage.FileWriteHelper;
+import com.github.liamdev06.mc.sddodgeball.storage.StorageExecutor;
+import com.github.liamdev06.mc.sddodgeball.storage.user.User;
+import com.github.liamdev06.mc.sddodgeball.storage.user.UserStat;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages user storing with one file per user within the plugin data folder.
+ * The files are spread over sub folders named after the first two characters of the
+ * user UUID, so loading or saving a user only ever reads or writes that user's own file.
+ * Every write is given a version when its values are copied, and a write older than the last
+ * one written for that user is dropped, so overlapping saves of a user always end with the newest values.
+ * The last written version is only kept while writes of the user are still pending.
+ */
+public class ShardedUserStorage implements IUserStorage {
+
+    private final @NonNull Map<UUID, User> users;
+    private final @NonNull RecentUserCache recentUsers;
+    private final @NonNull StorageExecutor executor;
+    private final @NonNull File directory;
+    private final @NonNull Map<UUID, UserWrites> pendingWrites;
+    private final @NonNull AtomicLong nextVersion;
+
+    public ShardedUserStorage(@NonNull DodgeballPlugin plugin) {
+        this.users = new ConcurrentHashMap<>();
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.nextVersion = new AtomicLong();
+        this.recentUsers = RecentUserCache.fromConfig(plugin.getPluginConfig());
+        this.executor = plugin.getStorageExecutor();
+        this.directory = getDirectory(plugin);
+    }
+
+    @Override
+    public CompletableFuture<User> getUser(@NonNull UUID uuid) {
+        // Return user if they are in cache
+        if (this.users.containsKey(uuid)) {
+            return CompletableFuture.supplyAsync(() -> this.users.get(uuid), Runnable::run)
+                    .exceptionally(exception -> {
+                        exception.printStackTrace();
+                        return null;
+                    });
+        }
+
+        // Serve a user who recently left from memory
+        User recentUser = this.recentUsers.take(uuid);
+        if (recentUser != null) {
+            this.users.put(uuid, recentUser);
+            return CompletableFuture.completedFuture(recentUser);
+        }
+
+        // Load in user from their file
+        return this.loadUserFromStorage(uuid);
+    }
+
+    @Override
+    @Nullable
+    public User getCachedUser(@NonNull UUID uuid) {
+        return this.users.get(uuid);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveUserToStorage(@NonNull UUID uuid) {
+        User user = this.users.get(uuid);
+        if (user == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Take a copy of the values so the user can keep changing while the file is written
+        Map<String, Object> values = user.getValues();
+        return this.queueWrite(uuid, values)
+                .exceptionally(exception -> {
+                    exception.printStackTrace();
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<User> loadUserFromStorage(@NonNull UUID uuid) {
+        return this.executor.supply(() -> {
+            File file = getUserFile(this.directory, uuid);
+            if (!file.exists()) {
+                return null;
+            }
+
+            // Load in stats and values
+            YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
+            int[] stats = new int[UserStat.values().length];
+            Map<String, Object> values = new HashMap<>();
+            for (String key : configuration.getKeys(false)) {
+                UserStat stat = UserStat.fromKey(key);
+                if (stat == null) {
+                    values.put(key, configuration.get(key));
+                } else {
+                    stats[stat.ordinal()] = configuration.getInt(key);
+                }
+            }
+
+            // Create new user and save
+            User user = new User(uuid);
+            user.load(stats, values);
+            this.users.put(uuid, user);
+
+            // Return user
+            return user;
+        }).exceptionally(ex -> {
+            ex.printStackTrace();
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, Integer>> loadTopStat(@NonNull UserStat stat, int limit) {
+        return this.executor.supply(() -> {
+            Map<UUID, Integer> scores = new HashMap<>();
+            File[] shards = this.directory.listFiles(File::isDirectory);
+            if (shards == null) {
+                return scores;
+            }
+
+            // Scan every user file
+            for (File shard : shards) {
+                File[] files = shard.listFiles((folder, name) -> name.endsWith(".yml"));
+                if (files == null) {
+                    continue;
+                }
+
+                for (File file : files) {
+                    String name = file.getName();
+                    try {
+                        UUID uuid = UUID.fromString(name.substring(0, name.length() - 4));
+                        scores.put(uuid, YamlConfiguration.loadConfiguration(file).getInt(stat.getKey()));
+                    } catch (IllegalArgumentException exception) {
+                        // Not a user file
+                    }
+                }
+            }
+
+            return IUserStorage.selectTop(scores, limit);
+        });
+    }
+
+    @Override
+    public CompletableFuture<User> createNewUser(@NonNull UUID uuid) {
+        // Create an empty file for the user
+        return this.queueWrite(uuid, new HashMap<>()).thenApply(ignored -> {
+            User user = new User(uuid);
+            this.users.put(uuid, user);
+            return user;
+        }).exceptionally(exception -> {
+            exception.printStackTrace();
+            return null;
+        });
+    }
+
+    @Override
+    public void removeUserFromCache(@NonNull UUID uuid) {
+        User user = this.users.remove(uuid);
+        if (user != null) {
+            this.recentUsers.put(user);
+        }
+    }
+
+    @Override
+    @NonNull
+    public Map<UUID, User> getUsers() {
+        return this.users;
+    }
+
+    /**
+     * Give the values of a user the next version and write them on the storage executor.
+     *
+     * @param uuid The UUID of the user.
+     * @param values The values to store.
+     * @return A future completed once the values are written, or a newer version was written before them.
+     */
+    private @NonNull CompletableFuture<Void> queueWrite(@NonNull UUID uuid, @NonNull Map<String, Object> values) {
+        long version = this.nextVersion.incrementAndGet();
+        UserWrites userWrites = this.pendingWrites.compute(uuid, (key, current) -> {
+            UserWrites writes = current == null ? new UserWrites() : current;
+            writes.pending++;
+            return writes;
+        });
+
+        AtomicBoolean released = new AtomicBoolean();
+        CompletableFuture<Void> future = this.executor.run(() -> {
+            try {
+                this.write(userWrites, uuid, values, version);
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    this.releaseWrite(uuid);
+                }
+            }
+        });
+
+        // A write the executor never took on is still released
+        future.whenComplete((result, exception) -> {
+            if (exception instanceof RejectedExecutionException && released.compareAndSet(false, true)) {
+                this.releaseWrite(uuid);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Write the file of a user, unless a newer version of the user has already been written.
+     * Writes of the same user are done one at a time, without holding up writes of other users.
+     *
+     * @param userWrites The pending writes of the user.
+     * @param uuid The UUID of the user.
+     * @param values The values to store.
+     * @param version The version of the values.
+     */
+    private void write(@NonNull UserWrites userWrites, @NonNull UUID uuid, @NonNull Map<String, Object> values, long version) {
+        synchronized (userWrites) {
+            if (version <= userWrites.writtenVersion) {
+                return;
+            }
+
+            writeUserFile(this.directory, uuid, values);
+            userWrites.writtenVersion = version;
+        }
+    }
+
+    /**
+     * Mark a write of a user as done, forgetting the user once none of their writes are pending.
+     *
+     * @param uuid The UUID of the user.
+     */
+    private void releaseWrite(@NonNull UUID uuid) {
+        this.pendingWrites.computeIfPresent(uuid, (key, writes) -> --writes.pending == 0 ? null : writes);
+    }
+
+    /**
+     * @param plugin The plugin instance.
+     * @return The folder all user files are stored within.
+     */
+    public static @NonNull File getDirectory(@NonNull DodgeballPlugin plugin) {
+        return new File(plugin.getDataFolder(), "users");
+    }
+
+    /**
+     * @param directory The folder all user files are stored within.
+     * @param uuid The UUID of the user.
+     * @return The file the user is stored in.
+     */
+    public static @NonNull File getUserFile(@NonNull File directory, @NonNull UUID uuid) {
+        String name = uuid.toString();
+        return new File(new File(directory, name.substring(0, 2)), name + ".yml");
+    }
+
+    /**
+     * Write the values of a user to their own file, replacing the previous file.
+     *
+     * @param directory The folder all user files are stored within.
+     * @param uuid The UUID of the user.
+     * @param values The values to store.
+     */
+    public static void writeUserFile(@NonNull File directory, @NonNull UUID uuid, @NonNull Map<String, Object> values) {
+        File file = getUserFile(directory, uuid);
+        File parent = file.getParentFile();
+        if (!parent.mkdirs() && !parent.isDirectory()) {
+            throw new IllegalStateException("Could not create the user folder " + parent.getPath());
+        }
+
+        YamlConfiguration configuration = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            configuration.set(entry.getKey(), entry.getValue());
+        }
+
+        try {
+            FileWriteHelper.writeAtomically(file.toPath(), configuration.saveToString());
+        } catch (IOException exception) {
+            throw new IllegalStateException("Could not write the user file " + file.getPath(), exception);
+        }
+    }
+
+    /**
+     * The writes of a user that are still pending. The pending count is only changed through
+     * the map, and the written version only while holding the lock of the instance.
+     */
+    private static final class UserWrites {
+        private int pending;
+        private long writtenVersion;
+    }
+}
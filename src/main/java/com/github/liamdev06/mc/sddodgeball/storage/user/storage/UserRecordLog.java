@@ -0,0 +1,448 @@
+package com.github.liamdev06.mc.sddodgeball.storage.user.storage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory mapped log of binary user records used by {@link BinaryUserStorage}.
+ * Every save appends a new record and an index keeps the offset of the latest record of each user.
+ * Replaced records are dropped by compacting the live records into the next generation of the log.
+ * <p>
+ * A record is laid out as the payload length, the payload and a CRC32 checksum of the payload. The
+ * payload holds the UUID, fixed slots for the user stats and a variable section for every custom value.
+ * Records that fail the checksum, such as one torn by a crash, end the log when it is read back.
+ */
+public class UserRecordLog {
+
+    private static final int MAGIC = 0x44424C47;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_OVERHEAD = 8;
+    private static final int MIN_PAYLOAD_SIZE = 16;
+    private static final int MIN_CAPACITY = 1 << 20;
+    private static final @NonNull String FILE_PREFIX = "users-", FILE_SUFFIX = ".dat";
+    private static final int STAT_SLOTS = 4;
+
+    private static final byte TYPE_INT = 0, TYPE_LONG = 1, TYPE_DOUBLE = 2, TYPE_BOOLEAN = 3, TYPE_STRING = 4;
+
+    private final @NonNull File directory;
+    private final @NonNull Map<UUID, Integer> offsets;
+    private final @NonNull Object compactionLock;
+    private File file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int generation, position, garbageBytes;
+
+    public UserRecordLog(@NonNull File directory) throws IOException {
+        this.directory = directory;
+        this.offsets = new HashMap<>();
+        this.compactionLock = new Object();
+
+        if (!directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create the user record folder " + directory.getPath());
+        }
+
+        // Open the newest generation and remove everything a compaction left behind
+        this.generation = this.findLatestGeneration();
+        this.deleteStaleFiles();
+        this.open(this.getGenerationFile(this.generation));
+        this.scan();
+    }
+
+    /**
+     * @param uuid The UUID of the user.
+     * @return The latest record of the user, or null if the user has no record.
+     * @throws IOException If the record could not be decoded.
+     */
+    public synchronized @Nullable UserRecord read(@NonNull UUID uuid) throws IOException {
+        Integer offset = this.offsets.get(uuid);
+        if (offset == null) {
+            return null;
+        }
+
+        byte[] payload = new byte[this.buffer.getInt(offset)];
+        this.buffer.get(offset + 4, payload);
+        return decode(payload);
+    }
+
+    /**
+     * Read one stat of every user straight from the fixed slots of their latest record.
+     *
+     * @param slot The slot of the stat, its {@link com.github.liamdev06.mc.sddodgeball.storage.user.UserStat#ordinal()}.
+     * @return The stat value of every user with a record.
+     */
+    public synchronized @NonNull Map<UUID, Integer> readStat(int slot) {
+        Map<UUID, Integer> stats = new HashMap<>();
+        for (Map.Entry<UUID, Integer> entry : this.offsets.entrySet()) {
+            // Skip the length, UUID and flags to get to the slots
+            int slotsOffset = entry.getValue() + 4 + MIN_PAYLOAD_SIZE + 1;
+            stats.put(entry.getKey(), this.buffer.getInt(slotsOffset + slot * 4));
+        }
+
+        return stats;
+    }
+
+    /**
+     * Append a new record for a user, replacing their previous record.
+     *
+     * @param uuid The UUID of the user.
+     * @param record The stats and custom values to store.
+     * @throws IOException If the record could not be encoded or the log could not grow.
+     */
+    public synchronized void write(@NonNull UUID uuid, @NonNull UserRecord record) throws IOException {
+        byte[] payload = encode(uuid, record);
+        int offset = this.position;
+        int size = RECORD_OVERHEAD + payload.length;
+        this.ensureCapacity((long) offset + size);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+
+        // Write the length last so a record torn by a crash is never read back
+        this.buffer.put(offset + 4, payload);
+        this.buffer.putInt(offset + 4 + payload.length, (int) checksum.getValue());
+        this.buffer.putInt(offset, payload.length);
+
+        this.position += size;
+        this.index(uuid, offset);
+    }
+
+    /**
+     * @return If enough of the log is taken up by replaced records for a compaction to be worth it.
+     */
+    public synchronized boolean needsCompaction() {
+        return this.garbageBytes > MIN_CAPACITY && this.garbageBytes > this.position / 2;
+    }
+
+    /**
+     * Copy the latest record of every user into the next generation of the log and switch over to it.
+     * The new file is fully written and synced before it replaces the current one, so a crash at any point keeps one complete log.
+     * <p>
+     * Records are only ever appended, so the bulk of the copy and its sync to the disk are done from a snapshot of
+     * the index without holding the lock. The lock is only taken to copy and sync the records written since then and
+     * to switch files, and the index of the new file is built while copying instead of by reading the file back.
+     *
+     * @throws IOException If the new generation could not be written.
+     */
+    public void compact() throws IOException {
+        synchronized (this.compactionLock) {
+            Map<UUID, Integer> snapshot;
+            MappedByteBuffer snapshotBuffer;
+            int snapshotPosition, nextGeneration;
+            synchronized (this) {
+                snapshot = new HashMap<>(this.offsets);
+                snapshotBuffer = this.buffer;
+                snapshotPosition = this.position;
+                nextGeneration = this.generation + 1;
+            }
+
+            File compactedFile = this.getGenerationFile(nextGeneration);
+            Path temporary = compactedFile.toPath().resolveSibling(compactedFile.getName() + ".tmp");
+            Map<UUID, Integer> compactedOffsets = new HashMap<>();
+
+            try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                // Write the header and every record that was live in the snapshot
+                writeFully(target, ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip());
+                int compactedPosition = HEADER_SIZE;
+                for (Map.Entry<UUID, Integer> entry : snapshot.entrySet()) {
+                    compactedOffsets.put(entry.getKey(), compactedPosition);
+                    compactedPosition += copyRecord(snapshotBuffer, entry.getValue(), target);
+                }
+
+                target.force(true);
+
+                synchronized (this) {
+                    // Append the records written since the snapshot, they come later in the file so they replace the copied ones
+                    int garbage = 0;
+                    for (Map.Entry<UUID, Integer> entry : this.offsets.entrySet()) {
+                        if (entry.getValue() < snapshotPosition) {
+                            continue;
+                        }
+
+                        Integer replaced = compactedOffsets.put(entry.getKey(), compactedPosition);
+                        if (replaced != null) {
+                            garbage += RECORD_OVERHEAD + snapshotBuffer.getInt(snapshot.get(entry.getKey()));
+                        }
+
+                        compactedPosition += copyRecord(this.buffer, entry.getValue(), target);
+                    }
+
+                    // The records of the current file are only removed once their copies are on the disk
+                    target.force(true);
+
+                    try {
+                        Files.move(temporary, compactedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException exception) {
+                        Files.move(temporary, compactedFile.toPath());
+                    }
+
+                    // Switch over to the new generation, the old file is removed on the next start if it is still mapped
+                    File previousFile = this.file;
+                    this.channel.close();
+                    this.generation = nextGeneration;
+                    this.open(compactedFile);
+                    this.offsets.clear();
+                    this.offsets.putAll(compactedOffsets);
+                    this.position = compactedPosition;
+                    this.garbageBytes = garbage;
+                    previousFile.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush all written records from memory to the disk.
+     */
+    public synchronized void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * Flush all written records and close the file.
+     *
+     * @throws IOException If the file could not be closed.
+     */
+    public synchronized void close() throws IOException {
+        this.buffer.force();
+        this.channel.close();
+    }
+
+    private void open(@NonNull File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.map(Math.max(MIN_CAPACITY, this.channel.size()));
+
+        // Write the header to new files and make sure existing files are user record logs
+        if (this.buffer.getInt(0) == 0) {
+            this.buffer.putInt(0, MAGIC);
+            this.buffer.putInt(4, FORMAT_VERSION);
+        } else if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != FORMAT_VERSION) {
+            this.channel.close();
+            throw new IOException(file.getPath() + " is not a supported user record log");
+        }
+    }
+
+    /**
+     * Read through every record to rebuild the index, stopping at the end of the log or the first invalid record.
+     */
+    private void scan() {
+        this.offsets.clear();
+        this.position = HEADER_SIZE;
+        this.garbageBytes = 0;
+
+        int capacity = this.buffer.capacity();
+        while (this.position + RECORD_OVERHEAD + MIN_PAYLOAD_SIZE <= capacity) {
+            int length = this.buffer.getInt(this.position);
+            if (length < MIN_PAYLOAD_SIZE || length > capacity - this.position - RECORD_OVERHEAD) {
+                break;
+            }
+
+            CRC32 checksum = new CRC32();
+            checksum.update(this.buffer.slice(this.position + 4, length));
+            if ((int) checksum.getValue() != this.buffer.getInt(this.position + 4 + length)) {
+                break;
+            }
+
+            UUID uuid = new UUID(this.buffer.getLong(this.position + 4), this.buffer.getLong(this.position + 12));
+            this.index(uuid, this.position);
+            this.position += RECORD_OVERHEAD + length;
+        }
+    }
+
+    private void index(@NonNull UUID uuid, int offset) {
+        Integer previous = this.offsets.put(uuid, offset);
+        if (previous != null) {
+            this.garbageBytes += RECORD_OVERHEAD + this.buffer.getInt(previous);
+        }
+    }
+
+    private void ensureCapacity(long required) throws IOException {
+        int capacity = this.buffer.capacity();
+        if (required <= capacity) {
+            return;
+        }
+
+        this.map(Math.max(required, capacity * 2L));
+    }
+
+    private void map(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("The user record log " + this.file.getPath() + " is too large to be memory mapped");
+        }
+
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private int findLatestGeneration() {
+        int latest = 0;
+        File[] files = this.directory.listFiles();
+        if (files == null) {
+            return latest;
+        }
+
+        for (File target : files) {
+            Integer generation = parseGeneration(target.getName());
+            if (generation != null && generation > latest) {
+                latest = generation;
+            }
+        }
+
+        return latest;
+    }
+
+    private void deleteStaleFiles() {
+        File[] files = this.directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File target : files) {
+            String name = target.getName();
+            Integer generation = parseGeneration(name);
+            if ((generation != null && generation < this.generation) || (name.startsWith(FILE_PREFIX) && name.endsWith(".tmp"))) {
+                target.delete();
+            }
+        }
+    }
+
+    private @NonNull File getGenerationFile(int generation) {
+        return new File(this.directory, FILE_PREFIX + generation + FILE_SUFFIX);
+    }
+
+    private static @Nullable Integer parseGeneration(@NonNull String name) {
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return null;
+        }
+
+        try {
+            return Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The amount of bytes copied.
+     */
+    private static int copyRecord(@NonNull MappedByteBuffer source, int offset, @NonNull FileChannel target) throws IOException {
+        int size = RECORD_OVERHEAD + source.getInt(offset);
+        writeFully(target, source.slice(offset, size));
+        return size;
+    }
+
+    private static void writeFully(@NonNull FileChannel channel, @NonNull ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static byte @NonNull [] encode(@NonNull UUID uuid, @NonNull UserRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+
+        // Fixed slots for the stats, the flags tell which of them are set
+        int[] stats = record.stats();
+        int flags = 0;
+        for (int i = 0; i < STAT_SLOTS; i++) {
+            if (i < stats.length) {
+                flags |= 1 << i;
+            }
+        }
+
+        output.writeByte(flags);
+        for (int i = 0; i < STAT_SLOTS; i++) {
+            output.writeInt(i < stats.length ? stats[i] : 0);
+        }
+
+        // Variable section for every other value
+        Map<String, Object> values = record.values();
+        output.writeInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            output.writeUTF(entry.getKey());
+            Object value = entry.getValue();
+
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                output.writeByte(TYPE_INT);
+                output.writeInt(((Number) value).intValue());
+            } else if (value instanceof Long) {
+                output.writeByte(TYPE_LONG);
+                output.writeLong((Long) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                output.writeByte(TYPE_DOUBLE);
+                output.writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                output.writeByte(TYPE_BOOLEAN);
+                output.writeBoolean((Boolean) value);
+            } else {
+                output.writeByte(TYPE_STRING);
+                output.writeUTF(String.valueOf(value));
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static @NonNull UserRecord decode(byte @NonNull [] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        input.skipNBytes(MIN_PAYLOAD_SIZE);
+
+        int flags = input.readByte();
+        int[] stats = new int[STAT_SLOTS];
+        for (int i = 0; i < STAT_SLOTS; i++) {
+            int slot = input.readInt();
+            if ((flags & (1 << i)) != 0) {
+                stats[i] = slot;
+            }
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        int extras = input.readInt();
+        for (int i = 0; i < extras; i++) {
+            String key = input.readUTF();
+            byte type = input.readByte();
+
+            Object value = switch (type) {
+                case TYPE_INT -> input.readInt();
+                case TYPE_LONG -> input.readLong();
+                case TYPE_DOUBLE -> input.readDouble();
+                case TYPE_BOOLEAN -> input.readBoolean();
+                case TYPE_STRING -> input.readUTF();
+                default -> throw new IOException("Unknown value type " + type + " in user record");
+            };
+
+            values.put(key, value);
+        }
+
+        return new UserRecord(stats, values);
+    }
+
+    /**
+     * The contents of a user record.
+     *
+     * @param stats The stats of the user, indexed by {@link com.github.liamdev06.mc.sddodgeball.storage.user.UserStat#ordinal()}.
+     * @param values The values of the user that are not stats.
+     */
+    public record UserRecord(int @NonNull [] stats, @NonNull Map<String, Object> values) {}
+}
@@ -3,7 +3,6 @@ package com.github.liamdev06.mc.sddodgeball.tickhandler.runnables;
 import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import com.github.liamdev06.mc.sddodgeball.game.Game;
 import com.github.liamdev06.mc.sddodgeball.tickhandler.AbstractGameRunnable;
-import com.github.liamdev06.mc.sddodgeball.storage.GameFileStorage;
 import com.github.liamdev06.mc.sddodgeball.managers.ScoreboardManager;
 import com.github.liamdev06.mc.sddodgeball.utility.autoregistry.AutoRegister;
 import com.github.liamdev06.mc.sddodgeball.utility.autoregistry.AutoRegistry;
@@ -27,7 +26,6 @@ public class ScoreboardRunnable extends AbstractGameRunnable {
     @Override
     public void run() {
         ScoreboardManager scoreboardManager = this.plugin.getScoreboardManager();
-        GameFileStorage configuration = this.plugin.getLobbyConfig();
 
         // Update game scoreboard
         for (Game game : this.plugin.getGames().values()) {
@@ -37,7 +35,7 @@ public class ScoreboardRunnable extends AbstractGameRunnable {
         }
 
         // Update lobby scoreboard
-        Location location = configuration.getLocation("environment.lobby", false);
+        Location location = this.plugin.getSettings().lobby().spawn();
         if (location != null) {
             World world = location.getWorld();
 
@@ -0,0 +1,140 @@
+package com.github.liamdev06.mc.sddodgeball.utility.autoregistry;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that writes every class marked with {@link AutoRegister} to {@link AutoRegistry#INDEX_RESOURCE}
+ * at compile time, so {@link AutoRegistry} never has to scan the classpath at runtime.
+ * <p>
+ * This class is compiled on its own before the rest of the plugin (see the pom), so it may only
+ * refer to the annotation and the plugin class by name.
+ */
+@SupportedAnnotationTypes(AutoRegisterProcessor.ANNOTATION_NAME)
+public class AutoRegisterProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION_NAME = "com.github.liamdev06.mc.sddodgeball.utility.autoregistry.AutoRegister";
+    private static final String INDEX_RESOURCE = "META-INF/dodgeball/autoregister.index";
+    private static final String PLUGIN_NAME = "com.github.liamdev06.mc.sddodgeball.DodgeballPlugin";
+
+    // Class names by their register type, sorted so the index is the same between builds
+    private final Map<String, Set<String>> index = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.writeIndex();
+            return false;
+        }
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                String type = this.getRegisterType(element);
+                if (type != null && this.isRegistrable((TypeElement) element)) {
+                    this.index.computeIfAbsent(type, key -> new TreeSet<>())
+                            .add(this.processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the {@link AutoRegistry.Type} name the element is annotated with.
+     *
+     * @param element The annotated element.
+     * @return The name of the register type, or null if it could not be read.
+     */
+    private String getRegisterType(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().toString().equals(ANNOTATION_NAME)) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("type") && entry.getValue().getValue() instanceof VariableElement constant) {
+                    return constant.getSimpleName().toString();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Check that a class can be created by the auto registry, which is a public, non-abstract class with a
+     * public constructor that takes the plugin instance. Anything else is reported as a compile error.
+     *
+     * @param element The annotated class.
+     * @return If the class can be registered.
+     */
+    private boolean isRegistrable(TypeElement element) {
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT) || !element.getModifiers().contains(Modifier.PUBLIC)) {
+            this.error(element, "@AutoRegister can only be used on public, non-abstract classes");
+            return false;
+        }
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC) || constructor.getParameters().size() != 1) {
+                continue;
+            }
+
+            // Compare the parameter by its element, since its type carries the nullness annotations
+            Element parameter = this.processingEnv.getTypeUtils().asElement(constructor.getParameters().get(0).asType());
+            if (parameter instanceof TypeElement typeElement && typeElement.getQualifiedName().contentEquals(PLUGIN_NAME)) {
+                return true;
+            }
+        }
+
+        this.error(element, "@AutoRegister classes need a public constructor that takes only the DodgeballPlugin");
+        return false;
+    }
+
+    /**
+     * Write the index, one 'TYPE binary.class.Name' entry per line.
+     */
+    private void writeIndex() {
+        try {
+            FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = file.openWriter()) {
+                for (Map.Entry<String, Set<String>> entry : this.index.entrySet()) {
+                    for (String className : entry.getValue()) {
+                        writer.write(entry.getKey() + " " + className + "\n");
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + INDEX_RESOURCE + ": " + exception.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -1,18 +1,28 @@
 package com.github.liamdev06.mc.sddodgeball.utility.autoregistry;
 
-import com.github.liamdev06.mc.sddodgeball.DodgeballPlugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
-import org.reflections.Reflections;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
  * Auto register certain classes instead of having to manually initialize their constructor.
+ * The classes are looked up in the index written by {@link AutoRegisterProcessor} at compile time.
  */
 public class AutoRegistry {
 
+    /**
+     * The resource the {@link AutoRegisterProcessor} writes every {@link AutoRegister} class to.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/dodgeball/autoregister.index";
+
     private static final Map<Class<?>, Object> REGISTRY = new HashMap<>();
+    private static Map<Type, List<Class<?>>> index;
 
     /**
      * Register a class that can be automatically initialized.
@@ -44,18 +54,44 @@ public class AutoRegistry {
      * @return All classes that have the {@link AutoRegister} annotation with the {@link AutoRegistry.Type}.
      */
     public static List<Class<?>> getClassesWithRegisterType(@NonNull Type type) {
-        List<Class<?>> classes = new ArrayList<>();
-        Reflections reflections = new Reflections(DodgeballPlugin.class.getPackage().getName());
-        Set<Class<?>> foundClasses = reflections.getTypesAnnotatedWith(AutoRegister.class);
+        if (index == null) {
+            index = loadIndex();
+        }
+
+        return index.getOrDefault(type, List.of());
+    }
+
+    /**
+     * Load the classes in the {@link #INDEX_RESOURCE} by their {@link AutoRegistry.Type}.
+     *
+     * @return All indexed classes by their type, empty if the index is missing.
+     */
+    private static Map<Type, List<Class<?>>> loadIndex() {
+        Map<Type, List<Class<?>>> classes = new EnumMap<>(Type.class);
+        ClassLoader classLoader = AutoRegistry.class.getClassLoader();
 
-        for (Class<?> clazz : foundClasses) {
-            if (clazz.isAnnotationPresent(AutoRegister.class)) {
-                AutoRegister autoRegister = clazz.getAnnotation(AutoRegister.class);
+        try (InputStream stream = classLoader.getResourceAsStream(INDEX_RESOURCE)) {
+            if (stream == null) {
+                new IllegalStateException("The auto register index " + INDEX_RESOURCE + " is missing, was the plugin built without annotation processing?").printStackTrace();
+                return classes;
+            }
 
-                if (autoRegister.type() == type) {
-                    classes.add(clazz);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] entry = line.trim().split(" ");
+                if (entry.length != 2) {
+                    continue;
+                }
+
+                try {
+                    classes.computeIfAbsent(Type.valueOf(entry[0]), key -> new ArrayList<>()).add(Class.forName(entry[1], false, classLoader));
+                } catch (IllegalArgumentException | ClassNotFoundException exception) {
+                    exception.printStackTrace();
                 }
             }
+        } catch (IOException exception) {
+            exception.printStackTrace();
         }
 
         return classes;
@@ -3,8 +3,8 @@ package com.github.liamdev06.mc.sddodgeball.utility.messaging;
 import net.md_5.bungee.api.ChatColor;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility and helper class to colorize messages with both regular bukkit color codes
@@ -12,7 +12,18 @@ import java.util.regex.Pattern;
  */
 public class LibColor {
 
-    private static final @NonNull String RAW_HEX_REGEX = "\\{#[A-Fa-f0-9]{6}}";
+    private static final @NonNull String COLOR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    private static final @NonNull String HEX_DIGITS = "0123456789AaBbCcDdEeFf";
+    private static final int HEX_CODE_LENGTH = 9;
+    private static final int CACHE_SIZE = 512;
+
+    /**
+     * Cache of colorized messages, keyed by the raw input. Most colorized messages are the same
+     * configured lines over and over again, so they only have to be translated once. Lookups do not
+     * take a lock, since chat and placeholder threads colorize at the same time, and the cache is
+     * simply cleared once it is full.
+     */
+    private static final @NonNull Map<String, String> CACHE = new ConcurrentHashMap<>();
 
     /**
      * Colorize a message with regular bukkit color codes using the '&' symbol,
@@ -22,44 +33,72 @@ public class LibColor {
      * @return The colorized message.
      */
     public static String colorMessage(@NonNull String input) {
-        // Regular bukkit coloring
-        input = org.bukkit.ChatColor.translateAlternateColorCodes('&', input);
+        // Nothing to colorize
+        if (input.indexOf('&') == -1 && !input.contains("{#")) {
+            return input;
+        }
 
-        // Colorize with hex color
-        input = hex(input);
+        String cached = CACHE.get(input);
+        if (cached != null) {
+            return cached;
+        }
+
+        String output = translate(input);
+        if (CACHE.size() >= CACHE_SIZE) {
+            CACHE.clear();
+        }
 
-        return input;
+        CACHE.put(input, output);
+        return output;
     }
 
     /**
-     * Colorizes a message with hex colors. To use hex colors,
-     * follow the format of {#HEX_CODE}, in the message string.
+     * Colorizes a message with both regular bukkit color codes and hex colors in a single pass.
+     * To use hex colors, follow the format of {#HEX_CODE}, in the message string.
      *
      * @param input The message to colorize.
      * @return The colorized message.
      */
-    private static String hex(@NonNull String input) {
-        Matcher matcher = Pattern.compile(RAW_HEX_REGEX).matcher(input);
-
-        // Get amount of hexes in the message
-        int hexAmount = 0;
-        while (matcher.find()) {
-            matcher.region(matcher.end() - 1, input.length());
-            hexAmount++;
+    private static String translate(@NonNull String input) {
+        int length = input.length();
+        StringBuilder builder = new StringBuilder(length + 16);
+
+        for (int i = 0; i < length; i++) {
+            char character = input.charAt(i);
+
+            if (character == '&' && i + 1 < length && COLOR_CODES.indexOf(input.charAt(i + 1)) > -1) {
+                // Regular bukkit color code
+                builder.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(input.charAt(i + 1)));
+                i++;
+            } else if (character == '{' && isHexCode(input, i)) {
+                // Replace the hex code with the color, skipping the curly braces
+                builder.append(ChatColor.of(input.substring(i + 1, i + HEX_CODE_LENGTH - 1)));
+                i += HEX_CODE_LENGTH - 1;
+            } else {
+                builder.append(character);
+            }
         }
 
-        // Go through message and look for hex color
-        int startIndex = 0;
-        for (int hexIndex = 0; hexIndex < hexAmount; hexIndex++) {
-            int msgIndex = input.indexOf("{#", startIndex);
-            String hex = input.substring(msgIndex + 1, msgIndex + 8);
-            startIndex = msgIndex + 2;
+        return builder.toString();
+    }
+
+    /**
+     * @param input The message to check in.
+     * @param start The index of the opening curly brace.
+     * @return If a hex code in the format of {#HEX_CODE} starts at the index.
+     */
+    private static boolean isHexCode(@NonNull String input, int start) {
+        if (start + HEX_CODE_LENGTH > input.length() || input.charAt(start + 1) != '#' || input.charAt(start + HEX_CODE_LENGTH - 1) != '}') {
+            return false;
+        }
 
-            // Replace with hex color
-            input = input.replace("{" + hex + "}", ChatColor.of(hex) + ""); // Replaces the hex code with the color
+        for (int i = start + 2; i < start + HEX_CODE_LENGTH - 1; i++) {
+            if (HEX_DIGITS.indexOf(input.charAt(i)) == -1) {
+                return false;
+            }
         }
 
-        return input;
+        return true;
     }
 
     /**
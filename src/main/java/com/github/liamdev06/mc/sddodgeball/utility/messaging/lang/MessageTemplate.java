@@ -0,0 +1,150 @@
+package com.github.liamdev06.mc.sddodgeball.utility.messaging.lang;
+
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.LibColor;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message compiled once from the configuration. The message is split into literal
+ * segments and the placeholders in between them, where every literal segment is already
+ * colorized and has its {newline} swapped to an actual new line. Rendering the message
+ * only has to append the segments and the placeholder values, instead of searching
+ * through the whole message once for every replacement.
+ */
+public class MessageTemplate {
+
+    private static final @NonNull Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([A-Za-z0-9_]+)}");
+    private static final @NonNull ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final @NonNull String[] segments;
+    private final @NonNull String[] placeholders;
+    private final @NonNull String[] keys;
+
+    private MessageTemplate(@NonNull String[] segments, @NonNull String[] placeholders) {
+        this.segments = segments;
+        this.placeholders = placeholders;
+        this.keys = new String[placeholders.length];
+
+        // Store the placeholders in the same format as MsgReplace#replace() to avoid creating new strings when rendering
+        for (int i = 0; i < placeholders.length; i++) {
+            this.keys[i] = "{" + placeholders[i] + "}";
+        }
+    }
+
+    /**
+     * Compile a raw message from the configuration.
+     *
+     * @param input The raw message.
+     * @return The compiled message.
+     */
+    public static @NonNull MessageTemplate compile(@NonNull String input) {
+        input = input.replace("{newline}", "\n");
+
+        List<String> segments = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(input);
+
+        int start = 0;
+        while (matcher.find()) {
+            segments.add(LibColor.colorMessage(input.substring(start, matcher.start())));
+            placeholders.add(matcher.group(1));
+            start = matcher.end();
+        }
+        segments.add(LibColor.colorMessage(input.substring(start)));
+
+        return new MessageTemplate(segments.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * Render the message with {@link MsgReplace} replacements. Placeholders without a
+     * matching replacement are kept as they are written in the configuration.
+     *
+     * @param replacements Array of replacements to replace in the message.
+     * @return The rendered message.
+     */
+    public @NonNull String render(MsgReplace... replacements) {
+        if (this.isStatic()) {
+            return this.segments[0];
+        }
+
+        return this.renderIndexed(index -> {
+            String key = this.keys[index];
+            for (MsgReplace replace : replacements) {
+                if (replace.replace().equals(key)) {
+                    return replace.replaceWith();
+                }
+            }
+
+            return null;
+        });
+    }
+
+    /**
+     * Render the message resolving every placeholder by name.
+     *
+     * @param resolver Resolves the value of each placeholder.
+     * @return The rendered message.
+     */
+    public @NonNull String render(@NonNull PlaceholderResolver resolver) {
+        if (this.isStatic()) {
+            return this.segments[0];
+        }
+
+        return this.renderIndexed(index -> resolver.resolve(this.placeholders[index]));
+    }
+
+    /**
+     * Render the message resolving every placeholder by the position it has in the message.
+     * Values that are not numbers are colorized, since they can contain color codes themselves.
+     *
+     * @param values Returns the value of the placeholder at an index of {@link MessageTemplate#getPlaceholders()},
+     *               or null if the placeholder should not be replaced.
+     * @return The rendered message.
+     */
+    public @NonNull String renderIndexed(@NonNull IntFunction<Object> values) {
+        if (this.isStatic()) {
+            return this.segments[0];
+        }
+
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        builder.append(this.segments[0]);
+
+        for (int i = 0; i < this.placeholders.length; i++) {
+            Object value = values.apply(i);
+
+            if (value == null) {
+                builder.append(this.keys[i]);
+            } else if (value instanceof Number) {
+                builder.append(value);
+            } else {
+                builder.append(LibColor.colorMessage(String.valueOf(value)));
+            }
+
+            builder.append(this.segments[i + 1]);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * @return If the message contains no placeholders, meaning it always renders to the same text.
+     */
+    public boolean isStatic() {
+        return this.placeholders.length == 0;
+    }
+
+    /**
+     * @return The placeholder names in the order they appear in the message, without the curly braces.
+     */
+    public @NonNull List<String> getPlaceholders() {
+        return Collections.unmodifiableList(Arrays.asList(this.placeholders));
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.liamdev06.mc.sddodgeball.utility.messaging.lang;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Resolves the current value of a placeholder used in a {@link MessageTemplate}.
+ */
+@FunctionalInterface
+public interface PlaceholderResolver {
+
+    /**
+     * @param placeholder The name of the placeholder without the curly braces, for example 'hits'.
+     * @return The current value of the placeholder, or null if the placeholder should be left as it is.
+     */
+    @Nullable Object resolve(@NonNull String placeholder);
+}
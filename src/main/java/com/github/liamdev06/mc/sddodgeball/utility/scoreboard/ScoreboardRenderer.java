@@ -0,0 +1,95 @@
+package com.github.liamdev06.mc.sddodgeball.utility.scoreboard;
+
+import com.github.liamdev06.mc.sddodgeball.utility.fastboard.FastBoard;
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.PlaceholderResolver;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Renders a {@link ScoreboardTemplate} on a {@link FastBoard}. The renderer remembers the
+ * placeholder values it last rendered, and only renders and sends the lines whose
+ * placeholders have changed since then.
+ */
+public class ScoreboardRenderer {
+
+    private final @NonNull FastBoard board;
+    private ScoreboardTemplate template;
+    private Object[] values;
+    private boolean[] changed;
+
+    public ScoreboardRenderer(@NonNull FastBoard board) {
+        this.board = board;
+    }
+
+    /**
+     * Render the template on the board. If the template is different from the last
+     * rendered template, all lines are rendered again.
+     *
+     * @param template The template to render.
+     * @param resolver Resolves the current value of each placeholder in the template.
+     */
+    public void render(@NonNull ScoreboardTemplate template, @NonNull PlaceholderResolver resolver) {
+        if (this.board.isDeleted()) {
+            return;
+        }
+
+        List<String> placeholders = template.getPlaceholders();
+        int size = placeholders.size();
+
+        // The template changed, render every line
+        if (template != this.template) {
+            this.template = template;
+            this.values = new Object[size];
+            this.changed = new boolean[size];
+
+            for (int i = 0; i < size; i++) {
+                this.values[i] = resolver.resolve(placeholders.get(i));
+            }
+
+            List<String> lines = new ArrayList<>(template.size());
+            for (int i = 0; i < template.size(); i++) {
+                lines.add(template.getLine(i).render(this.values));
+            }
+
+            this.board.updateLines(lines);
+            return;
+        }
+
+        // Check which placeholder values changed since the last render
+        boolean anyChanged = false;
+        for (int i = 0; i < size; i++) {
+            Object value = resolver.resolve(placeholders.get(i));
+            boolean valueChanged = !Objects.equals(value, this.values[i]);
+
+            this.changed[i] = valueChanged;
+            if (valueChanged) {
+                this.values[i] = value;
+                anyChanged = true;
+            }
+        }
+
+        if (!anyChanged) {
+            return;
+        }
+
+        // Only render and send the lines depending on a changed placeholder
+        for (int i = 0; i < template.size(); i++) {
+            ScoreboardTemplate.Line line = template.getLine(i);
+            if (!line.dependsOn(this.changed)) {
+                continue;
+            }
+
+            String text = line.render(this.values);
+            if (!text.equals(this.board.getLine(i))) {
+                this.board.updateLine(i, text);
+            }
+        }
+    }
+
+    public @NonNull FastBoard getBoard() {
+        return this.board;
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.liamdev06.mc.sddodgeball.utility.scoreboard;
+
+import com.github.liamdev06.mc.sddodgeball.utility.messaging.lang.MessageTemplate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scoreboard lines compiled once from the configuration. Every line knows
+ * which placeholders it depends on, so only the lines whose placeholders changed
+ * have to be rendered again. Lines without placeholders are colorized once when compiled.
+ */
+public class ScoreboardTemplate {
+
+    private final @NonNull List<String> placeholders;
+    private final @NonNull Line[] lines;
+
+    public ScoreboardTemplate(@NonNull List<String> rawLines) {
+        this.placeholders = new ArrayList<>();
+        this.lines = new Line[rawLines.size()];
+
+        for (int i = 0; i < rawLines.size(); i++) {
+            this.lines[i] = this.compileLine(rawLines.get(i));
+        }
+    }
+
+    /**
+     * Compile a raw line and link its placeholders to the placeholder indexes of the template.
+     *
+     * @param input The raw line from the configuration.
+     * @return The compiled line.
+     */
+    private @NonNull Line compileLine(@NonNull String input) {
+        MessageTemplate template = MessageTemplate.compile(input);
+        List<String> linePlaceholders = template.getPlaceholders();
+        int[] indexes = new int[linePlaceholders.size()];
+
+        for (int i = 0; i < indexes.length; i++) {
+            // Share the placeholder index between all lines using the same placeholder
+            String placeholder = linePlaceholders.get(i);
+            int index = this.placeholders.indexOf(placeholder);
+            if (index == -1) {
+                index = this.placeholders.size();
+                this.placeholders.add(placeholder);
+            }
+
+            indexes[i] = index;
+        }
+
+        return new Line(template, indexes);
+    }
+
+    /**
+     * @return All unique placeholder names used by the template, in the order of their index.
+     */
+    public @NonNull List<String> getPlaceholders() {
+        return this.placeholders;
+    }
+
+    public @NonNull Line getLine(int line) {
+        return this.lines[line];
+    }
+
+    public int size() {
+        return this.lines.length;
+    }
+
+    /**
+     * A single compiled scoreboard line.
+     */
+    public static class Line {
+
+        private final @NonNull MessageTemplate template;
+        private final int[] placeholderIndexes;
+
+        private Line(@NonNull MessageTemplate template, int[] placeholderIndexes) {
+            this.template = template;
+            this.placeholderIndexes = placeholderIndexes;
+        }
+
+        /**
+         * @param changed Which placeholder indexes have changed since the last render.
+         * @return If any of the placeholders this line depends on have changed.
+         */
+        public boolean dependsOn(boolean[] changed) {
+            for (int index : this.placeholderIndexes) {
+                if (changed[index]) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Render the line with the current placeholder values. Placeholders without
+         * a value are kept as they are written in the configuration.
+         *
+         * @param values The current value of every placeholder index in the template.
+         * @return The rendered and colorized line.
+         */
+        public @NonNull String render(@NonNull Object[] values) {
+            return this.template.renderIndexed(i -> values[this.placeholderIndexes[i]]);
+        }
+    }
+}